@@ -15,3 +15,43 @@ CREATE TABLE IF NOT EXISTS roles (
 INSERT IGNORE INTO roles (name) VALUES ('ROLE_USER');
 INSERT IGNORE INTO roles (name) VALUES ('ROLE_ADMIN');
 INSERT IGNORE INTO roles (name) VALUES ('ROLE_MODERATOR');
+
+-- Pooled id blocks for orders and order_items (Hibernate table generator). Safe to re-run against a
+-- live database before a release: each block starts above the table's AUTO_INCREMENT, so new ids
+-- never collide with rows inserted before the switch from IDENTITY.
+CREATE TABLE IF NOT EXISTS id_generators (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT
+);
+
+SET SESSION information_schema_stats_expiry = 0;
+-- The first block handed out is [next_val - 49, next_val], allocation size 50
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT TABLE_NAME, AUTO_INCREMENT + 50 FROM information_schema.TABLES
+WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME IN ('orders', 'order_items') AND AUTO_INCREMENT IS NOT NULL
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+-- Indexes behind the whitelisted product sorts and the category listing (see Product's @Table).
+-- MySQL has no CREATE INDEX IF NOT EXISTS, so each one is created only when the products table
+-- exists and does not have it yet.
+DROP PROCEDURE IF EXISTS create_index_if_missing;
+DELIMITER //
+CREATE PROCEDURE create_index_if_missing(IN table_name_in VARCHAR(64), IN index_name_in VARCHAR(64), IN columns_in VARCHAR(255))
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.TABLES
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = table_name_in)
+       AND NOT EXISTS (SELECT 1 FROM information_schema.STATISTICS
+                       WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = table_name_in AND INDEX_NAME = index_name_in) THEN
+        SET @ddl = CONCAT('CREATE INDEX ', index_name_in, ' ON ', table_name_in, ' (', columns_in, ')');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+DELIMITER ;
+
+CALL create_index_if_missing('products', 'idx_products_active_name', 'is_active, name, id');
+CALL create_index_if_missing('products', 'idx_products_active_price', 'is_active, price, id');
+CALL create_index_if_missing('products', 'idx_products_active_created', 'is_active, created_at, id');
+CALL create_index_if_missing('products', 'idx_products_category_active', 'category, is_active, id');
+DROP PROCEDURE create_index_if_missing;
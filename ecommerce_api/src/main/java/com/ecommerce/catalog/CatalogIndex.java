@@ -0,0 +1,14 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+
+import java.util.Collection;
+
+public interface CatalogIndex {
+
+    // Replace the whole index with the given active products
+    void rebuild(Collection<Product> activeProducts);
+
+    // Upsert an active product, drop an inactive one
+    void apply(Product product);
+}
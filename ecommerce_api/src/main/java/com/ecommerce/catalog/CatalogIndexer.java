@@ -0,0 +1,200 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps every {@link CatalogIndex} in sync with the products table: a full load at startup (from
+ * the local {@link CatalogSnapshot} when there is one, followed by an immediate delta scan),
+ * committed {@link ProductChangedEvent}s from this node, and a periodic updatedAt delta scan
+ * that picks up changes written by other nodes.
+ */
+@Component
+public class CatalogIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIndexer.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private List<CatalogIndex> indexes;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.catalog.index.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.catalog.index.refresh-overlap:5s}")
+    private Duration refreshOverlap;
+
+    private final Object lock = new Object();
+    private final List<Product> pending = new ArrayList<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+    private volatile LocalDateTime watermark;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (lock) {
+            rebuilding = true;
+        }
+        CatalogSnapshot.Contents snapshot = catalogSnapshot.load().filter(loaded -> !loaded.products().isEmpty()).orElse(null);
+        String source = snapshot != null ? "snapshot" : "database";
+        try {
+            long start = System.nanoTime();
+            List<Product> products = snapshot != null ? snapshot.products() : loadActiveProducts();
+            // The product cache is left cold: snapshot rows may be behind until the catch-up scan below
+            for (CatalogIndex index : indexes) {
+                index.rebuild(products);
+            }
+            watermark = snapshot != null ? snapshot.watermark() : products.stream()
+                .map(Product::getUpdatedAt)
+                .filter(updatedAt -> updatedAt != null)
+                .max(LocalDateTime::compareTo)
+                .orElse(LocalDateTime.now());
+            catalogSnapshot.markScannedUpTo(watermark);
+            ready = true;
+            logger.info("Indexed {} active products from the {} into {} catalog indexes in {} ms",
+                products.size(), source, indexes.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            synchronized (lock) {
+                pending.forEach(this::applyToIndexes);
+                pending.clear();
+                rebuilding = false;
+            }
+        }
+        Duration sinceStart = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+        Timer.builder("catalog.startup.ready")
+            .description("Time from JVM start until the catalog indexes serve reads")
+            .tag("source", source)
+            .register(meterRegistry)
+            .record(sinceStart);
+        logger.info("Catalog ready {} ms after JVM start", sinceStart.toMillis());
+        if (snapshot != null) {
+            // Served from the snapshot already; now fetch what changed since it was written
+            refreshFromRepository();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (product == null) {
+            product = loadCommitted(event.getProductId());
+            if (product == null) {
+                return;
+            }
+        }
+        apply(product);
+    }
+
+    // Also called from import requests; one scan at a time so the watermark only moves forward
+    @Scheduled(fixedDelayString = "${app.catalog.index.refresh-interval-ms:30000}",
+               initialDelayString = "${app.catalog.index.refresh-interval-ms:30000}")
+    public synchronized void refreshFromRepository() {
+        LocalDateTime since = watermark;
+        if (!ready || since == null) {
+            return;
+        }
+        LocalDateTime newest = since;
+        int page = 0;
+        List<Product> changed;
+        do {
+            changed = productRepository.findByUpdatedAtAfterOrderByUpdatedAtAscIdAsc(
+                since.minus(refreshOverlap), PageRequest.of(page++, batchSize));
+            for (Product product : changed) {
+                productCache.invalidate(product.getId());
+                apply(ProductCache.detachedCopy(product));
+                if (product.getUpdatedAt() != null && product.getUpdatedAt().isAfter(newest)) {
+                    newest = product.getUpdatedAt();
+                }
+            }
+        } while (changed.size() == batchSize);
+        watermark = newest;
+        catalogSnapshot.markScannedUpTo(newest);
+    }
+
+    private void apply(Product product) {
+        synchronized (lock) {
+            if (rebuilding) {
+                pending.add(product);
+            } else {
+                applyToIndexes(product);
+            }
+        }
+    }
+
+    private void applyToIndexes(Product product) {
+        for (CatalogIndex index : indexes) {
+            try {
+                index.apply(product);
+            } catch (RuntimeException e) {
+                logger.error("Failed to apply product {} to {}: {}", product.getId(), index.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads the row as committed, in a read-write transaction of its own so it comes from the
+     * primary (this runs after the changing transaction has committed, which it cannot join). The
+     * product cache is invalidated again afterwards: a read between the change and the commit may
+     * have cached the old row.
+     */
+    private Product loadCommitted(Long id) {
+        TransactionTemplate primary = new TransactionTemplate(transactionManager);
+        primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Product product = primary.execute(status -> productRepository.findById(id).map(ProductCache::detachedCopy).orElse(null));
+        productCache.invalidate(id);
+        return product;
+    }
+
+    private List<Product> loadActiveProducts() {
+        List<Product> products = new ArrayList<>();
+        long lastId = 0;
+        List<Product> batch;
+        do {
+            batch = productRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+            for (Product product : batch) {
+                products.add(ProductCache.detachedCopy(product));
+                lastId = product.getId();
+            }
+        } while (batch.size() == batchSize);
+        return products;
+    }
+}
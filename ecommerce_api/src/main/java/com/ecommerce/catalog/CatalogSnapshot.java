@@ -0,0 +1,266 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Periodic binary snapshot of the active catalog, written through a memory-mapped file so a
+ * restarting node can rebuild its indexes from local disk and only fetch the updatedAt delta from
+ * the database. The header carries the indexer's delta-scan watermark at the time of writing, which
+ * is where that catch-up resumes; the newest updatedAt in the file can be later than rows other
+ * nodes wrote that this one had not scanned yet. The file is written to a temporary sibling and moved into place, and carries a
+ * CRC32 of its body; anything unreadable is ignored in favour of a full database load.
+ */
+@Component
+public class CatalogSnapshot implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+    private static final int MAGIC = 0x43534E50;
+    private static final int FORMAT_VERSION = 2;
+    // magic, format version, product count, watermark as seconds + nanos, body CRC32
+    private static final int HEADER_BYTES = 4 + 4 + 4 + (8 + 4) + 8;
+
+    @Value("${app.catalog.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.catalog.snapshot.path:catalog.snapshot}")
+    private Path path;
+
+    private final Map<Long, Product> products = new HashMap<>();
+    private LocalDateTime watermark;
+    private boolean dirty;
+
+    public record Contents(List<Product> products, LocalDateTime watermark) {}
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Active products from the last snapshot, or empty when there is none or it cannot be trusted
+    public Optional<Contents> load() {
+        if (!enabled || !Files.isReadable(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("not a catalog snapshot");
+            }
+            int count = buffer.getInt();
+            LocalDateTime watermark = getTimestamp(buffer);
+            long checksum = buffer.getLong();
+            if (watermark == null) {
+                throw new IOException("no watermark");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            if (crc.getValue() != checksum) {
+                throw new IOException("checksum mismatch");
+            }
+            List<Product> loaded = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                loaded.add(readProduct(buffer));
+            }
+            return Optional.of(new Contents(loaded, watermark));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring catalog snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.snapshot.interval-ms:300000}",
+               initialDelayString = "${app.catalog.snapshot.interval-ms:300000}")
+    public void write() {
+        List<Product> current;
+        LocalDateTime scannedUpTo;
+        synchronized (this) {
+            if (!enabled || !dirty || watermark == null) {
+                return;
+            }
+            current = new ArrayList<>(products.values());
+            scannedUpTo = watermark;
+            dirty = false;
+        }
+        long start = System.nanoTime();
+        try {
+            writeTo(path, current, scannedUpTo);
+            logger.info("Wrote catalog snapshot of {} products to {} in {} ms",
+                current.size(), path, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            logger.warn("Failed to write catalog snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    // A rolling restart stops the node gracefully, so the next start gets the freshest file
+    @PreDestroy
+    public void writeOnShutdown() {
+        write();
+    }
+
+    /**
+     * Called by the indexer once every change up to the given updatedAt has been applied, so a
+     * snapshot written from here on can resume its catch-up scan from there.
+     */
+    public synchronized void markScannedUpTo(LocalDateTime watermark) {
+        this.watermark = watermark;
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<Product> activeProducts) {
+        if (!enabled) {
+            return;
+        }
+        // Not written again until the indexer reports how far these products are scanned
+        watermark = null;
+        products.clear();
+        for (Product product : activeProducts) {
+            products.put(product.getId(), product);
+        }
+        dirty = true;
+    }
+
+    @Override
+    public synchronized void apply(Product product) {
+        if (!enabled) {
+            return;
+        }
+        if (Boolean.TRUE.equals(product.getIsActive())) {
+            products.put(product.getId(), ProductCache.detachedCopy(product));
+        } else {
+            products.remove(product.getId());
+        }
+        dirty = true;
+    }
+
+    static void writeTo(Path target, Collection<Product> activeProducts, LocalDateTime watermark) throws IOException {
+        List<byte[][]> encoded = new ArrayList<>(activeProducts.size());
+        long size = HEADER_BYTES;
+        for (Product product : activeProducts) {
+            byte[][] strings = {
+                utf8(product.getName()), utf8(product.getDescription()), utf8(product.getCategory()),
+                utf8(product.getBrand()), utf8(product.getImageUrl()), unscaled(product.getPrice())
+            };
+            encoded.add(strings);
+            // id, scale, stock, createdAt and updatedAt as seconds + nanos, then length-prefixed fields
+            size += 8 + 4 + 4 + 2 * (8 + 4) + 4 * strings.length;
+            for (byte[] bytes : strings) {
+                size += bytes == null ? 0 : bytes.length;
+            }
+        }
+
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        // Unique per write: pods on the same node share the snapshot directory
+        Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.position(HEADER_BYTES);
+            int i = 0;
+            for (Product product : activeProducts) {
+                byte[][] strings = encoded.get(i++);
+                buffer.putLong(product.getId());
+                buffer.putInt(product.getPrice() == null ? 0 : product.getPrice().scale());
+                buffer.putInt(product.getStockQuantity() == null ? 0 : product.getStockQuantity());
+                putTimestamp(buffer, product.getCreatedAt());
+                putTimestamp(buffer, product.getUpdatedAt());
+                for (byte[] bytes : strings) {
+                    buffer.putInt(bytes == null ? -1 : bytes.length);
+                    if (bytes != null) {
+                        buffer.put(bytes);
+                    }
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(HEADER_BYTES).limit((int) size));
+            buffer.position(0);
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(activeProducts.size());
+            putTimestamp(buffer, watermark);
+            buffer.putLong(crc.getValue());
+            buffer.force();
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static Product readProduct(MappedByteBuffer buffer) {
+        Product product = new Product();
+        product.setId(buffer.getLong());
+        int scale = buffer.getInt();
+        product.setStockQuantity(buffer.getInt());
+        product.setCreatedAt(getTimestamp(buffer));
+        product.setUpdatedAt(getTimestamp(buffer));
+        product.setName(getString(buffer));
+        product.setDescription(getString(buffer));
+        product.setCategory(getString(buffer));
+        product.setBrand(getString(buffer));
+        product.setImageUrl(getString(buffer));
+        byte[] unscaled = getBytes(buffer);
+        product.setPrice(unscaled == null ? null : new BigDecimal(new BigInteger(unscaled), scale));
+        product.setIsActive(true);
+        return product;
+    }
+
+    private static void putTimestamp(MappedByteBuffer buffer, LocalDateTime timestamp) {
+        buffer.putLong(timestamp == null ? Long.MIN_VALUE : timestamp.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(timestamp == null ? 0 : timestamp.getNano());
+    }
+
+    private static LocalDateTime getTimestamp(MappedByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static String getString(MappedByteBuffer buffer) {
+        byte[] bytes = getBytes(buffer);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] getBytes(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] unscaled(BigDecimal price) {
+        return price == null ? null : price.unscaledValue().toByteArray();
+    }
+}
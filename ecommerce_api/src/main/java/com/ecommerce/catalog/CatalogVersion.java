@@ -0,0 +1,76 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic catalog version, bumped whenever a product's visible fields change, plus the version at
+ * which each product last changed. ETags embed a per-process epoch so two replicas never hand out
+ * the same validator for different content.
+ */
+@Component
+public class CatalogVersion implements CatalogIndex {
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, Long> productVersions = new ConcurrentHashMap<>();
+    private final Map<Long, Visible> visible = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    public long productVersion(Long id) {
+        return productVersions.getOrDefault(id, 0L);
+    }
+
+    // Null until the catalog is loaded, so nothing gets cached against an incomplete version map
+    public String catalogEtag() {
+        return ready ? "\"" + epoch + "-" + version.get() + "\"" : null;
+    }
+
+    public String productEtag(Long id) {
+        return ready ? "\"" + epoch + "-" + id + "-" + productVersion(id) + "\"" : null;
+    }
+
+    @Override
+    public void rebuild(Collection<Product> activeProducts) {
+        for (Product product : activeProducts) {
+            visible.put(product.getId(), Visible.of(product));
+        }
+        version.incrementAndGet();
+        ready = true;
+    }
+
+    @Override
+    public void apply(Product product) {
+        Visible current = Visible.of(product);
+        Visible previous = visible.put(product.getId(), current);
+        if (!current.equals(previous)) {
+            productVersions.put(product.getId(), version.incrementAndGet());
+        }
+    }
+
+    // The fields a response shows, compared by value: a hash could collide and keep a stale ETag valid
+    private record Visible(String name, String description, BigDecimal price, Integer stockQuantity, String category,
+                           String brand, String imageUrl, Boolean isActive) {
+
+        static Visible of(Product product) {
+            BigDecimal price = product.getPrice() == null ? null : product.getPrice().stripTrailingZeros();
+            return new Visible(product.getName(), product.getDescription(), price, product.getStockQuantity(),
+                product.getCategory(), product.getBrand(), product.getImageUrl(), product.getIsActive());
+        }
+    }
+}
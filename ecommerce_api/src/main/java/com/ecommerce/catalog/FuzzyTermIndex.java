@@ -0,0 +1,247 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Vocabulary of active product name terms with a trigram index, used to rewrite misspelled query
+ * terms to their closest known term. Candidates come from shared trigrams and are verified with a
+ * bounded edit distance: one edit for terms up to four characters, two beyond.
+ */
+@Component
+public class FuzzyTermIndex implements CatalogIndex {
+
+    private static final int GRAM = 3;
+    private static final int MIN_TERM_LENGTH = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<String, Integer> documentFrequency = new TreeMap<>();
+    private Map<String, Set<String>> termsByGram = new HashMap<>();
+    private Map<Long, Set<String>> termsById = new HashMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the query with unknown terms replaced by their best correction, or null when nothing
+     * could be corrected before the deadline ({@link System#nanoTime()} based). The last term is left
+     * alone when it is already a prefix of a known term, since search expands it as typed.
+     */
+    public String correct(String query, long deadlineNanos) {
+        List<String> terms = ProductSearchIndex.tokenize(query);
+        List<String> corrected = new ArrayList<>(terms.size());
+        boolean changed = false;
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                boolean last = i == terms.size() - 1;
+                String replacement = null;
+                if (!known(term, last) && System.nanoTime() < deadlineNanos) {
+                    replacement = closest(term, deadlineNanos);
+                }
+                corrected.add(replacement == null ? term : replacement);
+                changed |= replacement != null;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return changed ? String.join(" ", corrected) : null;
+    }
+
+    @Override
+    public void rebuild(Collection<Product> activeProducts) {
+        NavigableMap<String, Integer> frequencies = new TreeMap<>();
+        Map<String, Set<String>> grams = new HashMap<>();
+        Map<Long, Set<String>> byId = new HashMap<>(activeProducts.size() * 2);
+        for (Product product : activeProducts) {
+            Set<String> terms = nameTerms(product);
+            byId.put(product.getId(), terms);
+            for (String term : terms) {
+                addTerm(frequencies, grams, term);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            documentFrequency = frequencies;
+            termsByGram = grams;
+            termsById = byId;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(Product product) {
+        Set<String> updated = Boolean.TRUE.equals(product.getIsActive()) ? nameTerms(product) : Set.of();
+        lock.writeLock().lock();
+        try {
+            Set<String> previous = termsById.getOrDefault(product.getId(), Set.of());
+            if (previous.equals(updated)) {
+                return;
+            }
+            for (String term : previous) {
+                if (!updated.contains(term)) {
+                    removeTerm(term);
+                }
+            }
+            for (String term : updated) {
+                if (!previous.contains(term)) {
+                    addTerm(documentFrequency, termsByGram, term);
+                }
+            }
+            if (updated.isEmpty()) {
+                termsById.remove(product.getId());
+            } else {
+                termsById.put(product.getId(), updated);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean known(String term, boolean last) {
+        if (term.length() < MIN_TERM_LENGTH || documentFrequency.containsKey(term)) {
+            return true;
+        }
+        if (last) {
+            String next = documentFrequency.ceilingKey(term);
+            return next != null && next.startsWith(term);
+        }
+        return false;
+    }
+
+    private String closest(String term, long deadlineNanos) {
+        int maxEdits = term.length() <= 4 ? 1 : 2;
+        Set<String> grams = grams(term);
+        // q-gram lemma: every edit destroys at most GRAM of the term's grams
+        int minShared = Math.max(1, grams.size() - GRAM * maxEdits);
+
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            for (String candidate : termsByGram.getOrDefault(gram, Set.of())) {
+                shared.merge(candidate, 1, Integer::sum);
+            }
+        }
+
+        String best = null;
+        int bestDistance = maxEdits + 1;
+        int bestFrequency = 0;
+        int checked = 0;
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            if ((++checked & 63) == 0 && System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+            String candidate = entry.getKey();
+            if (entry.getValue() < minShared || Math.abs(candidate.length() - term.length()) > maxEdits) {
+                continue;
+            }
+            int distance = editDistance(term, candidate, maxEdits);
+            if (distance > maxEdits) {
+                continue;
+            }
+            int frequency = documentFrequency.getOrDefault(candidate, 0);
+            if (distance < bestDistance
+                    || (distance == bestDistance && (frequency > bestFrequency
+                        || (frequency == bestFrequency && best != null && candidate.compareTo(best) < 0)))) {
+                best = candidate;
+                bestDistance = distance;
+                bestFrequency = frequency;
+            }
+        }
+        return best;
+    }
+
+    // Optimal string alignment distance, or maxEdits + 1 as soon as it is known to exceed maxEdits
+    static int editDistance(String a, String b, int maxEdits) {
+        int[] previousRow = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            row[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(row[j] + 1, current[j - 1] + 1), row[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousRow[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previousRow;
+            previousRow = row;
+            row = current;
+            current = recycled;
+        }
+        return Math.min(row[b.length()], maxEdits + 1);
+    }
+
+    private void removeTerm(String term) {
+        Integer frequency = documentFrequency.get(term);
+        if (frequency == null) {
+            return;
+        }
+        if (frequency > 1) {
+            documentFrequency.put(term, frequency - 1);
+            return;
+        }
+        documentFrequency.remove(term);
+        for (String gram : grams(term)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                termsByGram.remove(gram);
+            }
+        }
+    }
+
+    private static void addTerm(Map<String, Integer> frequencies, Map<String, Set<String>> grams, String term) {
+        if (frequencies.merge(term, 1, Integer::sum) == 1) {
+            for (String gram : grams(term)) {
+                grams.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+            }
+        }
+    }
+
+    private static Set<String> nameTerms(Product product) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : ProductSearchIndex.tokenize(product.getName())) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    // Padded so that the first and last characters get grams of their own
+    private static Set<String> grams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
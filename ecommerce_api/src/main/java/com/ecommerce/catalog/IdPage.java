@@ -0,0 +1,23 @@
+package com.ecommerce.catalog;
+
+import java.util.Collections;
+import java.util.List;
+
+public class IdPage {
+
+    private final List<Long> ids;
+    private final long total;
+
+    public IdPage(List<Long> ids, long total) {
+        this.ids = ids;
+        this.total = total;
+    }
+
+    public static IdPage empty() {
+        return new IdPage(Collections.emptyList(), 0);
+    }
+
+    public List<Long> getIds() { return ids; }
+
+    public long getTotal() { return total; }
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Active products bucketed by stock level, so "everything below n" walks only the matching buckets
+ * instead of scanning the table. Listeners hear about every stock change of an active product,
+ * including products leaving the catalog.
+ */
+@Component
+public class LowStockTracker implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockTracker.class);
+
+    public interface Listener {
+        // currentStock is null when the product was deactivated
+        void stockChanged(Product product, Integer previousStock, Integer currentStock);
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private NavigableMap<Integer, TreeSet<Long>> idsByStock = new TreeMap<>();
+    private Map<Long, Integer> stockById = new HashMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Ids with stock below the threshold, lowest stock first, then by id
+    public List<Long> below(int threshold, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>(Math.min(limit, stockById.size()));
+            for (TreeSet<Long> level : idsByStock.headMap(threshold, false).values()) {
+                for (Long id : level) {
+                    if (ids.size() == limit) {
+                        return ids;
+                    }
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void rebuild(Collection<Product> activeProducts) {
+        NavigableMap<Integer, TreeSet<Long>> levels = new TreeMap<>();
+        Map<Long, Integer> stocks = new HashMap<>(activeProducts.size() * 2);
+        for (Product product : activeProducts) {
+            if (product.getStockQuantity() != null) {
+                stocks.put(product.getId(), product.getStockQuantity());
+                levels.computeIfAbsent(product.getStockQuantity(), stock -> new TreeSet<>()).add(product.getId());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            idsByStock = levels;
+            stockById = stocks;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(Product product) {
+        Integer current = Boolean.TRUE.equals(product.getIsActive()) ? product.getStockQuantity() : null;
+        Integer previous;
+        lock.writeLock().lock();
+        try {
+            previous = current == null ? stockById.remove(product.getId()) : stockById.put(product.getId(), current);
+            if (Objects.equals(previous, current)) {
+                return;
+            }
+            if (previous != null) {
+                TreeSet<Long> level = idsByStock.get(previous);
+                level.remove(product.getId());
+                if (level.isEmpty()) {
+                    idsByStock.remove(previous);
+                }
+            }
+            if (current != null) {
+                idsByStock.computeIfAbsent(current, stock -> new TreeSet<>()).add(product.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.stockChanged(product, previous, current);
+            } catch (RuntimeException e) {
+                logger.warn("Low stock listener failed for product {}: {}", product.getId(), e.getMessage());
+            }
+        }
+    }
+}
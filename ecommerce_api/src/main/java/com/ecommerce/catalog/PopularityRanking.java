@@ -0,0 +1,179 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Active product ids ranked by units sold (most sold first, ties by ascending id), kept as a
+ * sorted permutation so a popularity-sorted page is an array slice. A sale moves one product to
+ * its new rank; activation and deactivation insert or drop it.
+ */
+@Component
+public class PopularityRanking implements CatalogIndex, ProductPopularity.Listener {
+
+    @Autowired
+    private ProductPopularity popularity;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] ids = new long[0];
+    private long[] units = new long[0];
+    private int size;
+    private Map<Long, Long> rankedUnits = new HashMap<>();
+    private volatile boolean ready;
+
+    public record RankedProduct(Long id, long unitsSold) {}
+
+    @PostConstruct
+    void register() {
+        popularity.addListener(this);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public IdPage page(boolean mostSoldFirst, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Long> page = new ArrayList<>(limit);
+            for (int rank = offset; rank < size && page.size() < limit; rank++) {
+                page.add(ids[mostSoldFirst ? rank : size - 1 - rank]);
+            }
+            return new IdPage(page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Products ranked strictly after the given one (null for the first page), without counting the rest
+    public List<RankedProduct> after(boolean mostSoldFirst, RankedProduct last, int limit) {
+        lock.readLock().lock();
+        try {
+            List<RankedProduct> page = new ArrayList<>(limit);
+            if (mostSoldFirst) {
+                int from = last == null ? 0 : position(last.unitsSold(), last.id(), true);
+                for (int i = from; i < size && page.size() < limit; i++) {
+                    page.add(new RankedProduct(ids[i], units[i]));
+                }
+            } else {
+                int from = last == null ? size - 1 : position(last.unitsSold(), last.id(), false) - 1;
+                for (int i = from; i >= 0 && page.size() < limit; i--) {
+                    page.add(new RankedProduct(ids[i], units[i]));
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<Product> activeProducts) {
+        // Built under the write lock so a sale recorded while it runs is not lost
+        lock.writeLock().lock();
+        try {
+            List<RankedProduct> entries = new ArrayList<>(activeProducts.size());
+            Map<Long, Long> active = new HashMap<>(activeProducts.size() * 2);
+            for (Product product : activeProducts) {
+                long sold = popularity.get(product.getId());
+                entries.add(new RankedProduct(product.getId(), sold));
+                active.put(product.getId(), sold);
+            }
+            entries.sort(Comparator.comparingLong(RankedProduct::unitsSold).reversed().thenComparing(RankedProduct::id));
+            ids = new long[Math.max(16, entries.size())];
+            units = new long[ids.length];
+            size = entries.size();
+            for (int i = 0; i < size; i++) {
+                ids[i] = entries.get(i).id();
+                units[i] = entries.get(i).unitsSold();
+            }
+            rankedUnits = active;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(Product product) {
+        boolean active = Boolean.TRUE.equals(product.getIsActive());
+        lock.writeLock().lock();
+        try {
+            if (active && !rankedUnits.containsKey(product.getId())) {
+                insert(product.getId(), popularity.get(product.getId()));
+            } else if (!active && rankedUnits.containsKey(product.getId())) {
+                remove(product.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void unitsChanged(Long productId, long unitsSold) {
+        lock.writeLock().lock();
+        try {
+            if (rankedUnits.containsKey(productId)) {
+                remove(productId);
+                // Re-read under the lock: concurrent sales may notify out of order
+                insert(productId, popularity.get(productId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(Long id, long unitsSold) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(16, size * 2));
+            units = Arrays.copyOf(units, ids.length);
+        }
+        int at = position(unitsSold, id, false);
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        System.arraycopy(units, at, units, at + 1, size - at);
+        ids[at] = id;
+        units[at] = unitsSold;
+        size++;
+        rankedUnits.put(id, unitsSold);
+    }
+
+    private void remove(Long id) {
+        // The count it was ranked with, not the live one, locates the entry
+        int at = position(rankedUnits.get(id), id, false);
+        if (at == size || ids[at] != id) {
+            return;
+        }
+        System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+        System.arraycopy(units, at + 1, units, at, size - at - 1);
+        size--;
+        rankedUnits.remove(id);
+    }
+
+    // First rank not ordered before (unitsSold, id), or first rank strictly after it
+    private int position(long unitsSold, long id, boolean strictlyAfter) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = units[mid] != unitsSold ? Long.compare(unitsSold, units[mid]) : Long.compare(ids[mid], id);
+            if (cmp < 0 || (strictlyAfter && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
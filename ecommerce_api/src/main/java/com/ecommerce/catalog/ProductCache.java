@@ -0,0 +1,113 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded near-cache of products keyed by id. Values are detached copies so that callers
+ * never share a managed entity across transactions or trigger lazy loads on a cached instance.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    public static final String CACHE_NAME = "products";
+
+    private final Cache<Long, Product> cache;
+
+    public ProductCache(@Value("${app.catalog.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${app.catalog.cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+    }
+
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).map(ProductCache::detachedCopy).orElse(null)));
+    }
+
+    // Returns the products in the order of the given ids; misses are loaded with a single loader call
+    public List<Product> getAll(List<Long> ids, Function<Collection<Long>, Iterable<Product>> loader) {
+        Map<Long, Product> found = cache.getAll(ids, missing -> {
+            Map<Long, Product> loaded = new HashMap<>();
+            for (Product product : loader.apply(new ArrayList<>(missing))) {
+                loaded.put(product.getId(), detachedCopy(product));
+            }
+            return loaded;
+        });
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Evicts the product now and, when called inside a transaction, once more after commit so that
+     * a concurrent reader cannot re-populate the cache with the pre-commit row.
+     */
+    public void invalidate(Long id) {
+        if (id == null) {
+            return;
+        }
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    public static Product detachedCopy(Product source) {
+        Product copy = new Product();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        copy.setPrice(source.getPrice());
+        copy.setStockQuantity(source.getStockQuantity());
+        copy.setCategory(source.getCategory());
+        copy.setBrand(source.getBrand());
+        copy.setImageUrl(source.getImageUrl());
+        copy.setIsActive(source.getIsActive());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+
+public class ProductChangedEvent {
+
+    private final Long productId;
+    private final Product product;
+    // Stock written behind by the inventory ledger, which already holds this level
+    private final boolean writeBehind;
+
+    public ProductChangedEvent(Product product) {
+        this(product, false);
+    }
+
+    public ProductChangedEvent(Product product, boolean writeBehind) {
+        this(product.getId(), ProductCache.detachedCopy(product), writeBehind);
+    }
+
+    private ProductChangedEvent(Long productId, Product product, boolean writeBehind) {
+        this.productId = productId;
+        this.product = product;
+        this.writeBehind = writeBehind;
+    }
+
+    // Only the id, for a row changed by a blind UPDATE: listeners read the committed row themselves
+    public static ProductChangedEvent reload(Long productId) {
+        return new ProductChangedEvent(productId, null, false);
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    // Null for a reload event
+    public Product getProduct() {
+        return product;
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+}
@@ -0,0 +1,452 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.dto.response.ProductFacetsResponse;
+import com.ecommerce.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar read index for category + price range filters. Every product known to the index owns a
+ * slot; slots are kept in ascending id order so bitset iteration yields ids in id order. Active
+ * products are additionally kept in price-sorted columns (one per category plus one global) so a
+ * price range is two binary searches.
+ */
+@Component
+public class ProductFilterIndex implements CatalogIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[0];
+    private long[] prices = new long[0];
+    private int[] categoryCodes = new int[0];
+    private int[] brandCodes = new int[0];
+    private final Dictionary categoryDictionary = new Dictionary();
+    private final Dictionary brandDictionary = new Dictionary();
+    private int slotCount;
+    private Map<Long, Integer> slotById = new HashMap<>();
+    private BitSet active = new BitSet();
+    private Map<String, BitSet> categoryBits = new HashMap<>();
+    private PriceColumn allPrices = new PriceColumn();
+    private Map<String, PriceColumn> categoryPrices = new HashMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public IdPage filter(String category, BigDecimal minPrice, BigDecimal maxPrice, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = matching(category, minPrice, maxPrice);
+            List<Long> page = new ArrayList<>(limit);
+            int skipped = 0;
+            for (int slot = matches.nextSetBit(0); slot >= 0 && page.size() < limit; slot = matches.nextSetBit(slot + 1)) {
+                if (skipped++ >= offset) {
+                    page.add(ids[slot]);
+                }
+            }
+            return new IdPage(page, matches.cardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids greater than afterId (null for the first page) in ascending order, without counting the rest
+    public List<Long> filterAfter(String category, BigDecimal minPrice, BigDecimal maxPrice, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = matching(category, minPrice, maxPrice);
+            int from = afterId == null ? 0 : firstSlotAbove(afterId);
+            List<Long> page = new ArrayList<>(limit);
+            for (int slot = matches.nextSetBit(from); slot >= 0 && page.size() < limit; slot = matches.nextSetBit(slot + 1)) {
+                page.add(ids[slot]);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Category, brand and price bucket counts over the filtered products, computed in one pass over
+     * the matching bits. {@code bucketBounds} are ascending; n bounds give n + 1 buckets, each
+     * including its lower and excluding its upper bound. {@code restrictTo} optionally limits the
+     * result to the given ids (e.g. search hits).
+     */
+    public ProductFacetsResponse facets(String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                        Collection<Long> restrictTo, List<BigDecimal> bucketBounds) {
+        long[] bounds = new long[bucketBounds.size()];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = toCents(bucketBounds.get(i), RoundingMode.CEILING);
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = matching(category, minPrice, maxPrice);
+            if (restrictTo != null) {
+                BitSet allowed = new BitSet(slotCount);
+                for (Long id : restrictTo) {
+                    Integer slot = slotById.get(id);
+                    if (slot != null) {
+                        allowed.set(slot);
+                    }
+                }
+                matches.and(allowed);
+            }
+
+            long total = 0;
+            long[] categoryCounts = new long[categoryDictionary.size()];
+            long[] brandCounts = new long[brandDictionary.size()];
+            long[] bucketCounts = new long[bounds.length + 1];
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                total++;
+                if (categoryCodes[slot] >= 0) {
+                    categoryCounts[categoryCodes[slot]]++;
+                }
+                if (brandCodes[slot] >= 0) {
+                    brandCounts[brandCodes[slot]]++;
+                }
+                bucketCounts[bucketOf(prices[slot], bounds)]++;
+            }
+
+            List<ProductFacetsResponse.PriceBucket> buckets = new ArrayList<>(bucketCounts.length);
+            for (int i = 0; i < bucketCounts.length; i++) {
+                BigDecimal from = i == 0 ? BigDecimal.ZERO : bucketBounds.get(i - 1);
+                BigDecimal to = i == bounds.length ? null : bucketBounds.get(i);
+                buckets.add(new ProductFacetsResponse.PriceBucket(from, to, bucketCounts[i]));
+            }
+            return new ProductFacetsResponse(total, countsByName(categoryCounts, categoryDictionary),
+                countsByName(brandCounts, brandDictionary), buckets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<Product> activeProducts) {
+        List<Product> sorted = new ArrayList<>(activeProducts);
+        sorted.sort(Comparator.comparing(Product::getId));
+
+        lock.writeLock().lock();
+        try {
+            reset(sorted.size());
+            for (Product product : sorted) {
+                int slot = appendSlot(product.getId());
+                setColumns(slot, product);
+                markActive(slot);
+            }
+            buildPriceColumns();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(Product product) {
+        boolean isActive = Boolean.TRUE.equals(product.getIsActive());
+        long price = toCents(product.getPrice(), RoundingMode.HALF_UP);
+
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(product.getId());
+            if (slot == null) {
+                if (!isActive) {
+                    return;
+                }
+                slot = insertSlot(product.getId());
+            } else if (active.get(slot) == isActive && prices[slot] == price
+                    && Objects.equals(category(slot), product.getCategory())
+                    && Objects.equals(brandDictionary.name(brandCodes[slot]), product.getBrand())) {
+                return;
+            }
+            if (active.get(slot)) {
+                deactivate(slot);
+            }
+            setColumns(slot, product);
+            if (isActive) {
+                activate(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private BitSet matching(String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            BitSet result = (BitSet) active.clone();
+            if (category != null) {
+                result.and(categoryBits.getOrDefault(category, new BitSet()));
+            }
+            return result;
+        }
+        PriceColumn column = category == null ? allPrices : categoryPrices.get(category);
+        BitSet result = new BitSet(slotCount);
+        if (column == null) {
+            return result;
+        }
+        int from = minPrice == null ? 0 : column.lowerBound(toCents(minPrice, RoundingMode.CEILING));
+        int to = maxPrice == null ? column.size : column.lowerBound(toCents(maxPrice, RoundingMode.FLOOR) + 1);
+        for (int i = from; i < to; i++) {
+            result.set(column.slots[i]);
+        }
+        result.and(active);
+        return result;
+    }
+
+    private void setColumns(int slot, Product product) {
+        prices[slot] = toCents(product.getPrice(), RoundingMode.HALF_UP);
+        categoryCodes[slot] = categoryDictionary.code(product.getCategory());
+        brandCodes[slot] = brandDictionary.code(product.getBrand());
+    }
+
+    private String category(int slot) {
+        return categoryDictionary.name(categoryCodes[slot]);
+    }
+
+    private void activate(int slot) {
+        markActive(slot);
+        allPrices.insert(prices[slot], slot);
+        if (category(slot) != null) {
+            categoryPrices.computeIfAbsent(category(slot), c -> new PriceColumn()).insert(prices[slot], slot);
+        }
+    }
+
+    private void markActive(int slot) {
+        active.set(slot);
+        if (category(slot) != null) {
+            categoryBits.computeIfAbsent(category(slot), c -> new BitSet()).set(slot);
+        }
+    }
+
+    private void buildPriceColumns() {
+        Integer[] order = new Integer[active.cardinality()];
+        int next = 0;
+        for (int slot = active.nextSetBit(0); slot >= 0; slot = active.nextSetBit(slot + 1)) {
+            order[next++] = slot;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingLong(slot -> prices[slot]).thenComparingInt(slot -> slot));
+
+        allPrices = new PriceColumn();
+        categoryPrices = new HashMap<>();
+        for (int slot : order) {
+            allPrices.append(prices[slot], slot);
+            if (category(slot) != null) {
+                categoryPrices.computeIfAbsent(category(slot), c -> new PriceColumn()).append(prices[slot], slot);
+            }
+        }
+    }
+
+    private void deactivate(int slot) {
+        active.clear(slot);
+        allPrices.remove(prices[slot], slot);
+        String category = category(slot);
+        if (category != null) {
+            categoryBits.get(category).clear(slot);
+            PriceColumn column = categoryPrices.get(category);
+            column.remove(prices[slot], slot);
+            if (column.size == 0) {
+                categoryPrices.remove(category);
+                categoryBits.remove(category);
+            }
+        }
+    }
+
+    private static int bucketOf(long price, long[] bounds) {
+        int low = 0;
+        int high = bounds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bounds[mid] <= price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Map<String, Long> countsByName(long[] counts, Dictionary dictionary) {
+        List<Integer> codes = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                codes.add(code);
+            }
+        }
+        codes.sort((a, b) -> Long.compare(counts[b], counts[a]));
+        Map<String, Long> named = new LinkedHashMap<>();
+        for (int code : codes) {
+            named.put(dictionary.name(code), counts[code]);
+        }
+        return named;
+    }
+
+    private int firstSlotAbove(long id) {
+        int index = Arrays.binarySearch(ids, 0, slotCount, id + 1);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private int insertSlot(Long id) {
+        if (slotCount == 0 || ids[slotCount - 1] < id) {
+            return appendSlot(id);
+        }
+        // A lower id showed up late (e.g. via another node's delta); re-lay the slots in id order
+        List<Product> snapshot = new ArrayList<>(slotCount + 1);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (active.get(slot)) {
+                Product product = new Product();
+                product.setId(ids[slot]);
+                product.setPrice(BigDecimal.valueOf(prices[slot], 2));
+                product.setCategory(category(slot));
+                product.setBrand(brandDictionary.name(brandCodes[slot]));
+                snapshot.add(product);
+            }
+        }
+        Product placeholder = new Product();
+        placeholder.setId(id);
+        snapshot.add(placeholder);
+        snapshot.sort(Comparator.comparing(Product::getId));
+
+        reset(snapshot.size());
+        int inserted = -1;
+        for (Product product : snapshot) {
+            int slot = appendSlot(product.getId());
+            if (product == placeholder) {
+                inserted = slot;
+            } else {
+                setColumns(slot, product);
+                markActive(slot);
+            }
+        }
+        buildPriceColumns();
+        return inserted;
+    }
+
+    private int appendSlot(Long id) {
+        if (slotCount == ids.length) {
+            int capacity = Math.max(16, slotCount * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+            brandCodes = Arrays.copyOf(brandCodes, capacity);
+        }
+        int slot = slotCount++;
+        ids[slot] = id;
+        slotById.put(id, slot);
+        return slot;
+    }
+
+    private void reset(int capacity) {
+        ids = new long[capacity];
+        prices = new long[capacity];
+        categoryCodes = new int[capacity];
+        brandCodes = new int[capacity];
+        slotCount = 0;
+        slotById = new HashMap<>(capacity * 2);
+        active = new BitSet(capacity);
+        categoryBits = new HashMap<>();
+        allPrices = new PriceColumn();
+        categoryPrices = new HashMap<>();
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        return price == null ? 0 : price.setScale(2, roundingMode).unscaledValue().longValueExact();
+    }
+
+    // Interns category/brand values as small ints; -1 stands for null. Codes are never reused.
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        int code(String name) {
+            if (name == null) {
+                return -1;
+            }
+            return codes.computeIfAbsent(name, n -> {
+                names.add(n);
+                return names.size() - 1;
+            });
+        }
+
+        String name(int code) {
+            return code < 0 ? null : names.get(code);
+        }
+
+        int size() {
+            return names.size();
+        }
+    }
+
+    // Parallel primitive arrays sorted by (price, slot)
+    private static final class PriceColumn {
+        private long[] prices = new long[16];
+        private int[] slots = new int[16];
+        private int size;
+
+        int lowerBound(long price) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] < price) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void append(long price, int slot) {
+            ensureCapacity();
+            prices[size] = price;
+            slots[size] = slot;
+            size++;
+        }
+
+        void insert(long price, int slot) {
+            int index = position(price, slot);
+            ensureCapacity();
+            System.arraycopy(prices, index, prices, index + 1, size - index);
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            prices[index] = price;
+            slots[index] = slot;
+            size++;
+        }
+
+        void remove(long price, int slot) {
+            int index = position(price, slot);
+            if (index < size && prices[index] == price && slots[index] == slot) {
+                System.arraycopy(prices, index + 1, prices, index, size - index - 1);
+                System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+                size--;
+            }
+        }
+
+        private int position(long price, int slot) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] < price || (prices[mid] == price && slots[mid] < slot)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void ensureCapacity() {
+            if (size == prices.length) {
+                prices = Arrays.copyOf(prices, size * 2);
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Units sold per product across non-cancelled orders: loaded at startup and kept current by this
+ * node's order flow, then reset to the stored totals on a schedule so sales placed on other nodes
+ * count too and every node converges on the same ranking. Used to rank suggestions and
+ * popularity-sorted listings.
+ */
+@Component
+public class ProductPopularity {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductPopularity.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Long, LongAdder> unitsSold = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public interface Listener {
+        void unitsChanged(Long productId, long unitsSold);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    // Loaded ahead of the catalog index rebuild so rankings start from the stored counts
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loadStored().forEach((productId, units) -> unitsSold.computeIfAbsent(productId, id -> new LongAdder()).add(units));
+        logger.info("Loaded sales counts for {} products", unitsSold.size());
+    }
+
+    /**
+     * Moves every count to the stored total by its difference, so a sale recorded while the totals
+     * load is kept, and re-ranks only the products whose count changed. A local sale that commits
+     * just before the load may count twice until the next refresh.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.popularity.refresh-interval-ms:30000}",
+               initialDelayString = "${app.catalog.popularity.refresh-interval-ms:30000}")
+    public void refresh() {
+        Map<Long, Long> stored = loadStored();
+        Set<Long> productIds = new HashSet<>(unitsSold.keySet());
+        productIds.addAll(stored.keySet());
+        for (Long productId : productIds) {
+            long difference = stored.getOrDefault(productId, 0L) - get(productId);
+            if (difference != 0) {
+                add(productId, difference);
+            }
+        }
+    }
+
+    public long get(Long productId) {
+        LongAdder units = unitsSold.get(productId);
+        return units == null ? 0 : units.sum();
+    }
+
+    // Applied after commit when inside a transaction, so rolled-back orders never count
+    public void record(Long productId, long units) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(productId, units);
+                }
+            });
+        } else {
+            add(productId, units);
+        }
+    }
+
+    // From the primary: the counts rank listings until the next refresh, and a replica may be behind
+    private Map<Long, Long> loadStored() {
+        TransactionTemplate primary = new TransactionTemplate(transactionManager);
+        primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return primary.execute(status -> {
+            Map<Long, Long> stored = new HashMap<>();
+            for (Object[] row : orderRepository.sumUnitsByProduct(OrderStatus.CANCELLED)) {
+                stored.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+            return stored;
+        });
+    }
+
+    private void add(Long productId, long units) {
+        LongAdder total = unitsSold.computeIfAbsent(productId, id -> new LongAdder());
+        total.add(units);
+        long current = total.sum();
+        for (Listener listener : listeners) {
+            listener.unitsChanged(productId, current);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ready-to-write JSON bytes for hot product responses: product detail keyed by id, first listing
+ * pages keyed by their normalized query. Every entry carries the catalog version it was rendered at
+ * and is only served while that version is still current, so a stale body can never be replayed.
+ */
+@Component
+public class ProductResponseCache implements MeterBinder {
+
+    public static final String DETAIL_CACHE_NAME = "product-responses";
+    public static final String LISTING_CACHE_NAME = "product-listing-responses";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Cache<Long, CachedResponse> details;
+    private final Cache<String, CachedResponse> listings;
+    private final int gzipMinSize;
+
+    public ProductResponseCache(@Value("${app.catalog.response-cache.max-size:64MB}") DataSize maxSize,
+                                @Value("${app.catalog.response-cache.gzip-min-size:1KB}") DataSize gzipMinSize) {
+        this.details = Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes() / 2)
+            .weigher((Long id, CachedResponse response) -> response.weight())
+            .recordStats()
+            .build();
+        this.listings = Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes() / 2)
+            .weigher((String key, CachedResponse response) -> response.weight())
+            .recordStats()
+            .build();
+        this.gzipMinSize = (int) gzipMinSize.toBytes();
+    }
+
+    public CachedResponse detail(Long id, long version, Supplier<?> body) {
+        CachedResponse cached = details.getIfPresent(id);
+        if (cached != null && cached.version == version) {
+            return cached;
+        }
+        CachedResponse rendered = render(version, body.get());
+        details.put(id, rendered);
+        return rendered;
+    }
+
+    public CachedResponse listing(String key, long version, Supplier<?> body) {
+        CachedResponse cached = listings.getIfPresent(key);
+        if (cached != null && cached.version == version) {
+            return cached;
+        }
+        CachedResponse rendered = render(version, body.get());
+        listings.put(key, rendered);
+        return rendered;
+    }
+
+    // Any product change can reorder or resize a listing page, so all listings go
+    public void evict(Long productId) {
+        if (productId != null) {
+            details.invalidate(productId);
+        }
+        listings.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        details.invalidateAll();
+        listings.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, details, DETAIL_CACHE_NAME);
+        CaffeineCacheMetrics.monitor(registry, listings, LISTING_CACHE_NAME);
+    }
+
+    private CachedResponse render(long version, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new CachedResponse(version, json, json.length >= gzipMinSize ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static final class CachedResponse {
+
+        private final long version;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        CachedResponse(long version, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        public byte[] getJson() { return json; }
+
+        // Null when the body is too small to be worth compressing
+        public byte[] getGzip() { return gzip; }
+
+        private int weight() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name, brand, category and description, ranked with BM25.
+ * Query terms are AND-ed; the last term also matches as a prefix so partially typed words still hit.
+ */
+@Component
+public class ProductSearchIndex implements CatalogIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_BOOST = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final Comparator<SearchHit> RANKING =
+        Comparator.comparingDouble(SearchHit::score).reversed().thenComparing(SearchHit::id);
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int BRAND_WEIGHT = 2;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public IdPage search(String query, int offset, int limit) {
+        List<SearchHit> hits = rank(query);
+        List<Long> ids = new ArrayList<>();
+        for (int i = offset; i < hits.size() && ids.size() < limit; i++) {
+            ids.add(hits.get(i).id());
+        }
+        return new IdPage(ids, hits.size());
+    }
+
+    public List<Long> matchingIds(String query) {
+        List<SearchHit> hits = rank(query);
+        List<Long> ids = new ArrayList<>(hits.size());
+        hits.forEach(hit -> ids.add(hit.id()));
+        return ids;
+    }
+
+    private List<SearchHit> rank(String query) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<String, Map<Long, Integer>>> termGroups = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                Map<String, Map<Long, Integer>> group = expand(terms.get(i), i == terms.size() - 1);
+                if (group.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                termGroups.add(group);
+            }
+
+            Set<Long> candidates = null;
+            for (Map<String, Map<Long, Integer>> group : termGroups) {
+                Set<Long> matching = new HashSet<>();
+                group.values().forEach(docs -> matching.addAll(docs.keySet()));
+                if (candidates == null) {
+                    candidates = matching;
+                } else {
+                    candidates.retainAll(matching);
+                }
+                if (candidates.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            double averageLength = documents.isEmpty() ? 1 : (double) totalLength / documents.size();
+            List<SearchHit> hits = new ArrayList<>(candidates.size());
+            for (Long id : candidates) {
+                double score = 0;
+                for (int i = 0; i < termGroups.size(); i++) {
+                    String queryTerm = terms.get(i);
+                    for (Map.Entry<String, Map<Long, Integer>> entry : termGroups.get(i).entrySet()) {
+                        Integer frequency = entry.getValue().get(id);
+                        if (frequency != null) {
+                            double termScore = bm25(frequency, entry.getValue().size(), documents.get(id).length, averageLength);
+                            score += entry.getKey().equals(queryTerm) ? termScore : termScore * PREFIX_BOOST;
+                        }
+                    }
+                }
+                hits.add(new SearchHit(id, score));
+            }
+            hits.sort(RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<Product> activeProducts) {
+        TreeMap<String, Map<Long, Integer>> newPostings = new TreeMap<>();
+        Map<Long, Document> newDocuments = new HashMap<>();
+        long newTotalLength = 0;
+        for (Product product : activeProducts) {
+            Document document = Document.of(product);
+            newDocuments.put(product.getId(), document);
+            newTotalLength += document.length;
+            addPostings(newPostings, product.getId(), document);
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            documents = newDocuments;
+            totalLength = newTotalLength;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(Product product) {
+        Document document = Boolean.TRUE.equals(product.getIsActive()) ? Document.of(product) : null;
+
+        lock.writeLock().lock();
+        try {
+            Document existing = documents.get(product.getId());
+            if (existing != null && document != null && existing.termFrequencies.equals(document.termFrequencies)) {
+                return;
+            }
+            if (existing != null) {
+                removePostings(product.getId(), existing);
+                documents.remove(product.getId());
+                totalLength -= existing.length;
+            }
+            if (document != null) {
+                addPostings(postings, product.getId(), document);
+                documents.put(product.getId(), document);
+                totalLength += document.length;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private Map<String, Map<Long, Integer>> expand(String term, boolean allowPrefix) {
+        if (allowPrefix && term.length() >= MIN_PREFIX_LENGTH) {
+            return postings.subMap(term, true, term + Character.MAX_VALUE, true);
+        }
+        Map<Long, Integer> exact = postings.get(term);
+        return exact == null ? Collections.emptyMap() : Collections.singletonMap(term, exact);
+    }
+
+    private double bm25(int frequency, int documentFrequency, int documentLength, double averageLength) {
+        int documentCount = documents.size();
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        double norm = K1 * (1 - B + B * documentLength / averageLength);
+        return idf * frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    private static void addPostings(Map<String, Map<Long, Integer>> target, Long id, Document document) {
+        document.termFrequencies.forEach((term, frequency) ->
+            target.computeIfAbsent(term, t -> new HashMap<>()).put(id, frequency));
+    }
+
+    private void removePostings(Long id, Document document) {
+        for (String term : document.termFrequencies.keySet()) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    public record SearchHit(Long id, double score) {}
+
+    private static final class Document {
+        private final Map<String, Integer> termFrequencies;
+        private final int length;
+
+        private Document(Map<String, Integer> termFrequencies, int length) {
+            this.termFrequencies = termFrequencies;
+            this.length = length;
+        }
+
+        static Document of(Product product) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = 0;
+            length += addField(frequencies, product.getName(), NAME_WEIGHT);
+            length += addField(frequencies, product.getBrand(), BRAND_WEIGHT);
+            length += addField(frequencies, product.getCategory(), CATEGORY_WEIGHT);
+            length += addField(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+            return new Document(frequencies, Math.max(length, 1));
+        }
+
+        private static int addField(Map<String, Integer> frequencies, String text, int weight) {
+            List<String> tokens = tokenize(text);
+            for (String token : tokens) {
+                frequencies.merge(token, weight, Integer::sum);
+            }
+            return tokens.size() * weight;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.dto.response.ProductSuggestion;
+import com.ecommerce.entity.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix autocomplete over active product names and brands. Every word-start suffix of a name or
+ * brand ("iphone 15 pro", "15 pro", "pro") is a key in a sorted map, so a prefix lookup is one
+ * range scan; matches are ranked by units sold at query time. Short prefixes match large ranges
+ * and are also the most repeated, so ranked results are memoized briefly.
+ */
+@Component
+public class ProductSuggestIndex implements CatalogIndex {
+
+    private static final Comparator<ProductSuggestion> RANKING = Comparator
+        .comparingLong(ProductSuggestion::getPopularity).reversed()
+        .thenComparingInt(suggestion -> suggestion.getText().length())
+        .thenComparing(ProductSuggestion::getText)
+        .thenComparing(ProductSuggestion::getProductId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    @Autowired
+    private ProductPopularity popularity;
+
+    private final Cache<String, List<ProductSuggestion>> recent = Caffeine.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterWrite(Duration.ofSeconds(30))
+        .build();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<String, Set<Long>> nameKeys = new TreeMap<>();
+    private NavigableMap<String, Set<Long>> brandKeys = new TreeMap<>();
+    private Map<Long, Entry> entries = new HashMap<>();
+    private volatile boolean ready;
+
+    private record Entry(String name, String brand) {}
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return recent.get(limit + ":" + key, cacheKey -> rank(key, limit));
+    }
+
+    private List<ProductSuggestion> rank(String key, int limit) {
+        PriorityQueue<ProductSuggestion> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        lock.readLock().lock();
+        try {
+            Set<Long> products = new HashSet<>();
+            for (Set<Long> ids : range(nameKeys, key).values()) {
+                products.addAll(ids);
+            }
+            for (Long id : products) {
+                offer(top, new ProductSuggestion(entries.get(id).name(), ProductSuggestion.Type.PRODUCT, id, popularity.get(id)), limit);
+            }
+
+            Map<String, Long> brands = new HashMap<>();
+            Set<Long> seen = new HashSet<>();
+            for (Set<Long> ids : range(brandKeys, key).values()) {
+                for (Long id : ids) {
+                    if (seen.add(id)) {
+                        brands.merge(entries.get(id).brand(), popularity.get(id), Long::sum);
+                    }
+                }
+            }
+            brands.forEach((brand, units) -> offer(top, new ProductSuggestion(brand, ProductSuggestion.Type.BRAND, null, units), limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<ProductSuggestion> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return List.copyOf(ranked);
+    }
+
+    @Override
+    public void rebuild(Collection<Product> activeProducts) {
+        NavigableMap<String, Set<Long>> names = new TreeMap<>();
+        NavigableMap<String, Set<Long>> brandsByKey = new TreeMap<>();
+        Map<Long, Entry> built = new HashMap<>(activeProducts.size() * 2);
+        for (Product product : activeProducts) {
+            Entry entry = new Entry(product.getName(), product.getBrand());
+            built.put(product.getId(), entry);
+            addKeys(names, entry.name(), product.getId());
+            addKeys(brandsByKey, entry.brand(), product.getId());
+        }
+        lock.writeLock().lock();
+        try {
+            nameKeys = names;
+            brandKeys = brandsByKey;
+            entries = built;
+            recent.invalidateAll();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(Product product) {
+        Entry updated = Boolean.TRUE.equals(product.getIsActive()) ? new Entry(product.getName(), product.getBrand()) : null;
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(product.getId());
+            if (Objects.equals(previous, updated)) {
+                return;
+            }
+            if (previous != null) {
+                entries.remove(product.getId());
+                removeKeys(nameKeys, previous.name(), product.getId());
+                removeKeys(brandKeys, previous.brand(), product.getId());
+            }
+            if (updated != null) {
+                entries.put(product.getId(), updated);
+                addKeys(nameKeys, updated.name(), product.getId());
+                addKeys(brandKeys, updated.brand(), product.getId());
+            }
+            recent.invalidateAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void offer(PriorityQueue<ProductSuggestion> top, ProductSuggestion suggestion, int limit) {
+        top.offer(suggestion);
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+    private static NavigableMap<String, Set<Long>> range(NavigableMap<String, Set<Long>> keys, String prefix) {
+        return keys.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static void addKeys(NavigableMap<String, Set<Long>> keys, String text, Long id) {
+        for (String key : wordStartSuffixes(text)) {
+            keys.computeIfAbsent(key, k -> new HashSet<>(2)).add(id);
+        }
+    }
+
+    private static void removeKeys(NavigableMap<String, Set<Long>> keys, String text, Long id) {
+        for (String key : wordStartSuffixes(text)) {
+            Set<Long> ids = keys.get(key);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                keys.remove(key);
+            }
+        }
+    }
+
+    static Set<String> wordStartSuffixes(String text) {
+        if (text == null) {
+            return Set.of();
+        }
+        List<String> tokens = ProductSearchIndex.tokenize(text);
+        Set<String> suffixes = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            suffixes.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        return suffixes;
+    }
+
+    private static String normalize(String prefix) {
+        return prefix == null ? "" : String.join(" ", ProductSearchIndex.tokenize(prefix));
+    }
+}
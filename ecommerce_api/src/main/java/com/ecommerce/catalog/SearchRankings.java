@@ -0,0 +1,66 @@
+package com.ecommerce.catalog;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ranked hit ids of recent cursor searches, keyed by an opaque id carried in the cursor. Every page
+ * of a search is cut from the ranking its first page was, so later pages neither re-score the hits
+ * nor skip or repeat any when an index change moves BM25 document frequencies in between.
+ */
+@Component
+public class SearchRankings implements MeterBinder {
+
+    public static final String CACHE_NAME = "search-rankings";
+
+    private final Cache<String, Ranking> rankings;
+
+    public SearchRankings(@Value("${app.catalog.search.rankings.maximum-ids:1000000}") long maximumIds,
+                          @Value("${app.catalog.search.rankings.ttl:10m}") Duration ttl) {
+        this.rankings = Caffeine.newBuilder()
+            .maximumWeight(maximumIds)
+            .weigher((String key, Ranking ranking) -> ranking.ids().length + 1)
+            .expireAfterAccess(ttl)
+            .recordStats()
+            .build();
+    }
+
+    public String newKey() {
+        return Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    }
+
+    public Ranking put(String key, String query, List<Long> ids) {
+        Ranking ranking = new Ranking(query, ids.stream().mapToLong(Long::longValue).toArray());
+        rankings.put(key, ranking);
+        return ranking;
+    }
+
+    // Null once expired or evicted, or when the ranking was made on another node
+    public Ranking get(String key) {
+        return rankings.getIfPresent(key);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, rankings, CACHE_NAME);
+    }
+
+    public record Ranking(String query, long[] ids) {
+
+        // Up to limit ids starting at offset
+        public List<Long> slice(int offset, int limit) {
+            int from = Math.min(offset, ids.length);
+            return Arrays.stream(ids, from, Math.min(ids.length, from + limit)).boxed().toList();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates replica lag from a heartbeat row: every check stamps the row on the primary and reads
+ * it back from the replica, so the lag seen is replication delay plus at most one check interval.
+ * The replica is only used while that stays within the configured maximum; a failed check counts
+ * as too much lag.
+ */
+public class ReplicaLagMonitor implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)";
+    private static final String UPDATE_SQL = "UPDATE replica_heartbeat SET beat_millis = ? WHERE id = 1";
+    private static final String INSERT_SQL = "INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, ?)";
+    private static final String SELECT_SQL = "SELECT beat_millis FROM replica_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private boolean tableChecked;
+    private volatile long lagMillis = -1;
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public synchronized void check() {
+        try {
+            long now = System.currentTimeMillis();
+            beat(now);
+            List<Long> beats = replica.queryForList(SELECT_SQL, Long.class);
+            lagMillis = beats.isEmpty() ? -1 : Math.max(0, now - beats.get(0));
+        } catch (DataAccessException e) {
+            lagMillis = -1;
+            logger.debug("Replica lag check failed: {}", e.getMessage());
+        }
+        boolean usable = lagMillis >= 0 && lagMillis <= maxLag.toMillis();
+        if (usable != replicaUsable) {
+            logger.info(usable ? "Routing read-only transactions to the replica (lag {} ms)"
+                : "Replica lag {} ms above limit, routing reads to the primary", lagMillis);
+        }
+        replicaUsable = usable;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("datasource.replica.lag", this, TimeUnit.MILLISECONDS, monitor -> monitor.lagMillis)
+            .description("Heartbeat lag of the read replica, -1 when unknown")
+            .register(registry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.replicaUsable ? 1 : 0)
+            .description("Whether read-only transactions are routed to the replica")
+            .register(registry);
+    }
+
+    private void beat(long now) {
+        if (!tableChecked) {
+            primary.execute(CREATE_TABLE_SQL);
+            tableChecked = true;
+        }
+        if (primary.update(UPDATE_SQL, now) == 0) {
+            primary.update(INSERT_SQL, now);
+        }
+    }
+}
@@ -1,25 +1,39 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.dto.request.OrderBatchRequest;
 import com.ecommerce.dto.request.OrderRequest;
+import com.ecommerce.dto.response.OrderBatchResponse;
+import com.ecommerce.dto.response.OrderRequestStatusResponse;
+import com.ecommerce.dto.response.OrderResponse;
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.OrderStatus;
 import com.ecommerce.security.services.UserPrincipal;
+import com.ecommerce.service.AsyncOrderService;
+import com.ecommerce.service.IdempotencyService;
+import com.ecommerce.service.OrderPipeline;
+import com.ecommerce.service.OrderReportService;
 import com.ecommerce.service.OrderService;
+import com.ecommerce.service.OrderStatusStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -27,9 +41,29 @@ import java.util.List;
 @Tag(name = "Orders", description = "Order management APIs")
 public class OrderController {
 
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderPipeline orderPipeline;
+
+    @Autowired
+    private AsyncOrderService asyncOrderService;
+
+    @Autowired
+    private OrderStatusStreamService orderStatusStreamService;
+
+    @Autowired
+    private OrderReportService orderReportService;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MODERATOR')")
     @Operation(summary = "Get all orders", description = "Retrieve all orders with pagination (Admin/Moderator only)")
@@ -61,6 +95,29 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping(value = "/my-orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream user's order status changes", description = "Server-Sent Events of status changes to the " +
+            "authenticated user's orders. Reconnect with Last-Event-ID (or after) to replay what was missed")
+    public SseEmitter streamMyOrderStatus(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long after) {
+
+        return orderStatusStreamService.subscribe(userPrincipal.getId(), null, after != null ? after : lastEventId);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MODERATOR')")
+    @Operation(summary = "Stream order status changes", description = "Server-Sent Events of status changes to all orders, " +
+            "optionally only those entering one status (Admin/Moderator only)")
+    public SseEmitter streamOrderStatus(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long after) {
+
+        return orderStatusStreamService.subscribe(null, status, after != null ? after : lastEventId);
+    }
+
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MODERATOR')")
     @Operation(summary = "Get orders by status", description = "Retrieve orders by status (Admin/Moderator only)")
@@ -75,13 +132,44 @@ public class OrderController {
     }
 
     @PostMapping
-    @Operation(summary = "Create order", description = "Create a new order for the authenticated user")
-    public ResponseEntity<Order> createOrder(
+    @Operation(summary = "Create order", description = "Create a new order for the authenticated user. " +
+            "Retries carrying the same Idempotency-Key replay the first response instead of creating another order. " +
+            "With Prefer: respond-async the order is queued and 202 returns a tracking id to poll")
+    public ResponseEntity<?> createOrder(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = PREFER, required = false) String prefer,
             @Valid @RequestBody OrderRequest orderRequest) {
-        
-        Order order = orderService.createOrder(userPrincipal.getId(), orderRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(order);
+
+        boolean async = asyncOrderService.isEnabled() && prefer != null && prefer.contains(RESPOND_ASYNC);
+        if (idempotencyKey == null) {
+            return placeOrder(userPrincipal.getId(), orderRequest, async, orderPipeline.isEnabled());
+        }
+        // Never pipelined: the pipeline commits on its own thread, outside the transaction that stores the response
+        return idempotencyService.execute(userPrincipal.getId(), idempotencyKey, orderRequest,
+            () -> placeOrder(userPrincipal.getId(), orderRequest, async, false));
+    }
+
+    @GetMapping("/requests/{id}")
+    @Operation(summary = "Get order request status", description = "Poll an order accepted with Prefer: respond-async")
+    public ResponseEntity<OrderRequestStatusResponse> getOrderRequestStatus(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable String id) {
+
+        boolean privileged = userPrincipal.getAuthorities().stream()
+            .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN") || authority.getAuthority().equals("ROLE_MODERATOR"));
+        OrderRequestStatusResponse status = asyncOrderService.getStatus(id, userPrincipal.getId(), privileged);
+        return ResponseEntity.ok(status);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create orders in batch", description = "Create many orders for the authenticated user in one call, with a result per order")
+    public ResponseEntity<OrderBatchResponse> createOrders(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Valid @RequestBody OrderBatchRequest orderBatchRequest) {
+
+        OrderBatchResponse response = orderService.createOrders(userPrincipal.getId(), orderBatchRequest.getOrders());
+        return ResponseEntity.ok(response);
     }
 
     @PutMapping("/{id}/status")
@@ -102,15 +190,21 @@ public class OrderController {
         return ResponseEntity.ok().build();
     }
 
-    @GetMapping("/report")
+    @GetMapping(value = "/report", produces = {"application/x-ndjson", "text/csv"})
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Get orders report", description = "Get orders between dates for reporting (Admin only)")
-    public ResponseEntity<List<Order>> getOrdersReport(
+    @Operation(summary = "Get orders report", description = "Stream orders between dates with their items as NDJSON, " +
+            "or as CSV with one line per item when Accept is text/csv (Admin only)")
+    public void getOrdersReport(
             @RequestParam LocalDateTime startDate,
-            @RequestParam LocalDateTime endDate) {
-        
-        List<Order> orders = orderService.getOrdersBetweenDates(startDate, endDate);
-        return ResponseEntity.ok(orders);
+            @RequestParam LocalDateTime endDate,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response) throws IOException {
+
+        boolean csv = accept != null && MediaType.parseMediaTypes(accept).stream().anyMatch(TEXT_CSV::equalsTypeAndSubtype);
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=orders-report." + (csv ? "csv" : "ndjson"));
+        orderReportService.export(startDate, endDate, csv ? OrderReportService.Format.CSV : OrderReportService.Format.NDJSON,
+            response.getOutputStream());
     }
 
     @GetMapping("/count/user/{userId}")
@@ -120,4 +214,18 @@ public class OrderController {
         Long count = orderService.getOrderCountByUser(userId);
         return ResponseEntity.ok(count);
     }
+
+    private ResponseEntity<?> placeOrder(Long userId, OrderRequest orderRequest, boolean async, boolean pipelined) {
+        if (async) {
+            OrderRequestStatusResponse accepted = asyncOrderService.submit(userId, orderRequest);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/requests/" + accepted.getId()))
+                .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                .body(accepted);
+        }
+        Order order = pipelined
+            ? orderPipeline.createOrder(userId, orderRequest)
+            : orderService.createOrder(userId, orderRequest);
+        return ResponseEntity.status(HttpStatus.CREATED).body(OrderResponse.from(order));
+    }
 }
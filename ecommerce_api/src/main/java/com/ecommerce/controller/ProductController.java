@@ -1,8 +1,22 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.catalog.CatalogVersion;
+import com.ecommerce.catalog.ProductResponseCache;
+import com.ecommerce.catalog.ProductResponseCache.CachedResponse;
+import com.ecommerce.dto.request.ProductBatchRequest;
 import com.ecommerce.dto.request.ProductRequest;
+import com.ecommerce.dto.request.StockAdjustmentRequest;
+import com.ecommerce.dto.response.ProductBatchResponse;
+import com.ecommerce.dto.response.ProductFacetsResponse;
+import com.ecommerce.dto.response.ProductImportResponse;
+import com.ecommerce.dto.response.ProductResponse;
+import com.ecommerce.dto.response.ProductSuggestion;
+import com.ecommerce.dto.response.StockAdjustmentResponse;
 import com.ecommerce.entity.Product;
+import com.ecommerce.service.LowStockStreamService;
+import com.ecommerce.service.ProductImportService;
 import com.ecommerce.service.ProductService;
+import com.ecommerce.service.ProductSort;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -11,13 +25,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Supplier;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -28,79 +49,203 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private LowStockStreamService lowStockStreamService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ProductResponseCache responseCache;
+
     @GetMapping
-    @Operation(summary = "Get all products", description = "Retrieve all active products with pagination")
-    public ResponseEntity<Page<Product>> getAllProducts(
+    @Operation(summary = "Get all products", description = "Retrieve all active products with pagination, sorted by name, price, newest or popularity. Pass 'after' (empty for the first page) for cursor pagination without a total count")
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(required = false) String sortDirection,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Product> products = productService.getAllProducts(pageable);
-        return ResponseEntity.ok(products);
+        ProductSort sort = ProductSort.from(sortBy);
+        Sort.Direction direction = sort.direction(sortDirection);
+        String etag = catalogVersion.catalogEtag();
+        if (notModified(request, etag)) {
+            return null;
+        }
+        return listing(request, etag, firstPage(page, after, "all", size, sort.getKey(), direction.name()), () -> {
+            if (after != null) {
+                return productService.getProductsAfter(sort, direction, after, size);
+            }
+            if (sort == ProductSort.POPULARITY) {
+                return productService.getProductsByPopularity(direction, PageRequest.of(page, size));
+            }
+            return productService.getAllProducts(PageRequest.of(page, size, sort.toSort(direction)));
+        });
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        Product product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+    public ResponseEntity<?> getProductById(@PathVariable Long id, WebRequest request) {
+        String etag = catalogVersion.productEtag(id);
+        if (notModified(request, etag)) {
+            return null;
+        }
+        if (etag == null) {
+            return ResponseEntity.ok(productService.getProductById(id));
+        }
+        CachedResponse response = responseCache.detail(id, catalogVersion.productVersion(id), () -> productService.getProductById(id));
+        return json(request, etag, response);
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Retrieve several products in one call, in request order, reporting ids that were not found per item")
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(@RequestParam List<Long> ids, WebRequest request) {
+        String etag = catalogVersion.catalogEtag();
+        if (notModified(request, etag)) {
+            return null;
+        }
+        return ok(etag, productService.getProductsByIds(ids));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get products by IDs (POST)", description = "Same as GET /batch for id lists too long for a query string")
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(@Valid @RequestBody ProductBatchRequest productBatchRequest) {
+        return ResponseEntity.ok(productService.getProductsByIds(productBatchRequest.getIds()));
     }
 
     @GetMapping("/category/{category}")
-    @Operation(summary = "Get products by category", description = "Retrieve products by category with pagination")
-    public ResponseEntity<Page<Product>> getProductsByCategory(
+    @Operation(summary = "Get products by category", description = "Retrieve products by category with pagination, or cursor pagination when 'after' is given")
+    public ResponseEntity<?> getProductsByCategory(
             @PathVariable String category,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productService.getProductsByCategory(category, pageable);
-        return ResponseEntity.ok(products);
+        String etag = catalogVersion.catalogEtag();
+        if (notModified(request, etag)) {
+            return null;
+        }
+        return listing(request, etag, firstPage(page, after, "category", size, category), () -> {
+            if (after != null) {
+                return productService.getProductsByCategoryAfter(category, after, size);
+            }
+            Pageable pageable = PageRequest.of(page, size);
+            return productService.getProductsByCategory(category, pageable);
+        });
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search products", description = "Search products by name with pagination")
-    public ResponseEntity<Page<Product>> searchProducts(
+    @Operation(summary = "Search products", description = "Search products by name with pagination, or cursor pagination when 'after' is given")
+    public ResponseEntity<?> searchProducts(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productService.searchProducts(keyword, pageable);
-        return ResponseEntity.ok(products);
+        String etag = catalogVersion.catalogEtag();
+        if (notModified(request, etag)) {
+            return null;
+        }
+        return listing(request, etag, firstPage(page, after, "search", size, keyword), () -> {
+            if (after != null) {
+                return productService.searchProductsAfter(keyword, after, size);
+            }
+            Pageable pageable = PageRequest.of(page, size);
+            return productService.searchProducts(keyword, pageable);
+        });
     }
 
     @GetMapping("/filter")
-    @Operation(summary = "Filter products", description = "Filter products by category and price range")
-    public ResponseEntity<Page<Product>> filterProducts(
+    @Operation(summary = "Filter products", description = "Filter products by category and price range, with cursor pagination when 'after' is given")
+    public ResponseEntity<?> filterProducts(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productService.getProductsWithFilters(category, minPrice, maxPrice, pageable);
-        return ResponseEntity.ok(products);
+        String etag = catalogVersion.catalogEtag();
+        if (notModified(request, etag)) {
+            return null;
+        }
+        return listing(request, etag, firstPage(page, after, "filter", size, category, minPrice, maxPrice), () -> {
+            if (after != null) {
+                return productService.getProductsWithFiltersAfter(category, minPrice, maxPrice, after, size);
+            }
+            Pageable pageable = PageRequest.of(page, size);
+            return productService.getProductsWithFilters(category, minPrice, maxPrice, pageable);
+        });
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest products", description = "Autocomplete product names and brands by prefix, most sold first")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<ProductSuggestion> suggestions = productService.suggest(prefix, Math.min(limit, 50));
+        return ResponseEntity.ok(suggestions);
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Get product facets", description = "Count matching products per category, brand and price bucket for an optional keyword/category/price filter")
+    public ResponseEntity<ProductFacetsResponse> getFacets(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) List<BigDecimal> priceBuckets,
+            WebRequest request) {
+        
+        String etag = catalogVersion.catalogEtag();
+        if (notModified(request, etag)) {
+            return null;
+        }
+        ProductFacetsResponse facets = productService.getFacets(keyword, category, minPrice, maxPrice, priceBuckets);
+        return ok(etag, facets);
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Create product", description = "Create a new product (Admin only)")
-    public ResponseEntity<Product> createProduct(@Valid @RequestBody ProductRequest productRequest) {
+    public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody ProductRequest productRequest) {
         Product product = productService.createProduct(productRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(product);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ProductResponse.from(product));
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk import products", description = "Stream products as CSV (with a header row) or NDJSON into batched inserts, reporting per-row errors (Admin only)")
+    public ResponseEntity<ProductImportResponse> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                InputStream body) throws IOException {
+        ProductImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))
+            ? ProductImportService.Format.CSV : ProductImportService.Format.NDJSON;
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
+    @PostMapping("/stock")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Adjust stock in bulk", description = "Apply a batch of relative (delta) or absolute (quantity) stock changes in one transaction (Admin only)")
+    public ResponseEntity<StockAdjustmentResponse> adjustStock(@Valid @RequestBody StockAdjustmentRequest stockAdjustmentRequest) {
+        StockAdjustmentResponse response = productService.adjustStock(stockAdjustmentRequest.getAdjustments());
+        return ResponseEntity.ok(response);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update product", description = "Update an existing product (Admin only)")
-    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductRequest productRequest) {
+    public ResponseEntity<ProductResponse> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductRequest productRequest) {
         Product product = productService.updateProduct(id, productRequest);
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok(ProductResponse.from(product));
     }
 
     @DeleteMapping("/{id}")
@@ -113,9 +258,80 @@ public class ProductController {
 
     @GetMapping("/low-stock")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MODERATOR')")
-    @Operation(summary = "Get low stock products", description = "Get products with low stock (Admin/Moderator only)")
-    public ResponseEntity<List<Product>> getLowStockProducts(@RequestParam(defaultValue = "10") Integer threshold) {
-        List<Product> products = productService.getLowStockProducts(threshold);
+    @Operation(summary = "Get low stock products", description = "Get active products with low stock, lowest first (Admin/Moderator only)")
+    public ResponseEntity<List<ProductResponse>> getLowStockProducts(@RequestParam(defaultValue = "10") Integer threshold,
+                                                                     @RequestParam(defaultValue = "100") int limit) {
+        List<ProductResponse> products = productService.getLowStockProducts(threshold, Math.max(1, Math.min(limit, 500)));
         return ResponseEntity.ok(products);
     }
+
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MODERATOR')")
+    @Operation(summary = "Stream low stock changes", description = "Server-Sent Events: a snapshot of low stock products, then every change below the threshold (Admin/Moderator only)")
+    public SseEmitter streamLowStockProducts(@RequestParam(defaultValue = "10") Integer threshold) {
+        return lowStockStreamService.subscribe(threshold);
+    }
+
+    /**
+     * Answers If-None-Match before any repository access or JSON serialization, for either
+     * content-coding. checkNotModified also stamps its ETag on the response, so it is only called
+     * with the tag that matched; otherwise the response sets the tag of the body it actually sends.
+     */
+    private boolean notModified(WebRequest request, String etag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (etag == null || ifNoneMatch == null) {
+            return false;
+        }
+        if (acceptsGzip(request) && ifNoneMatch.contains(gzipEtag(etag))) {
+            return request.checkNotModified(gzipEtag(etag));
+        }
+        if (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*")) {
+            return request.checkNotModified(etag);
+        }
+        return false;
+    }
+
+    private <T> ResponseEntity<T> ok(String etag, T body) {
+        return etag == null ? ResponseEntity.ok(body) : ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    // First pages are served from pre-serialized bytes; deeper pages are rendered per request
+    private ResponseEntity<?> listing(WebRequest request, String etag, String cacheKey, Supplier<?> body) {
+        if (etag == null || cacheKey == null) {
+            return ok(etag, body.get());
+        }
+        return json(request, etag, responseCache.listing(cacheKey, catalogVersion.current(), body));
+    }
+
+    // The gzip and identity bodies are different representations, so each gets its own strong ETag
+    private ResponseEntity<byte[]> json(WebRequest request, String etag, CachedResponse response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (response.getGzip() != null && acceptsGzip(request)) {
+            return builder.eTag(gzipEtag(etag)).header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.getGzip());
+        }
+        return builder.eTag(etag).body(response.getJson());
+    }
+
+    private static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    private static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    private static String firstPage(int page, String after, Object... query) {
+        boolean first = after == null ? page == 0 : after.isEmpty();
+        if (!first) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(after == null ? "page" : "cursor");
+        for (Object part : query) {
+            key.append('\u0000').append(part);
+        }
+        return key.toString();
+    }
 }
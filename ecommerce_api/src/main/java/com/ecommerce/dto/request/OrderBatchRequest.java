@@ -0,0 +1,26 @@
+package com.ecommerce.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class OrderBatchRequest {
+
+    @NotNull
+    @NotEmpty
+    @Valid
+    private List<@NotNull OrderRequest> orders;
+
+    // Constructors
+    public OrderBatchRequest() {}
+
+    public OrderBatchRequest(List<OrderRequest> orders) {
+        this.orders = orders;
+    }
+
+    // Getters and Setters
+    public List<OrderRequest> getOrders() { return orders; }
+    public void setOrders(List<OrderRequest> orders) { this.orders = orders; }
+}
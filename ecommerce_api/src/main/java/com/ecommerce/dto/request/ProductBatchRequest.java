@@ -0,0 +1,24 @@
+package com.ecommerce.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class ProductBatchRequest {
+
+    @NotNull
+    @NotEmpty
+    private List<@NotNull Long> ids;
+
+    // Constructors
+    public ProductBatchRequest() {}
+
+    public ProductBatchRequest(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+}
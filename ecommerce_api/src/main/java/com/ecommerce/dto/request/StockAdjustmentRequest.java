@@ -0,0 +1,55 @@
+package com.ecommerce.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class StockAdjustmentRequest {
+
+    @NotNull
+    @NotEmpty
+    @Valid
+    private List<StockAdjustment> adjustments;
+
+    // Constructors
+    public StockAdjustmentRequest() {}
+
+    public StockAdjustmentRequest(List<StockAdjustment> adjustments) {
+        this.adjustments = adjustments;
+    }
+
+    // Getters and Setters
+    public List<StockAdjustment> getAdjustments() { return adjustments; }
+    public void setAdjustments(List<StockAdjustment> adjustments) { this.adjustments = adjustments; }
+
+    // Exactly one of delta (relative change) or quantity (absolute level) must be set
+    public static class StockAdjustment {
+        @NotNull
+        private Long productId;
+
+        private Integer delta;
+
+        private Integer quantity;
+
+        // Constructors
+        public StockAdjustment() {}
+
+        public StockAdjustment(Long productId, Integer delta, Integer quantity) {
+            this.productId = productId;
+            this.delta = delta;
+            this.quantity = quantity;
+        }
+
+        // Getters and Setters
+        public Long getProductId() { return productId; }
+        public void setProductId(Long productId) { this.productId = productId; }
+
+        public Integer getDelta() { return delta; }
+        public void setDelta(Integer delta) { this.delta = delta; }
+
+        public Integer getQuantity() { return quantity; }
+        public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.dto.response;
+
+import java.util.List;
+
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+
+    public CursorPage(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() { return content; }
+
+    public int getSize() { return size; }
+
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean isHasNext() { return nextCursor != null; }
+}
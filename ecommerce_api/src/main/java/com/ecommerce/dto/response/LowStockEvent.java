@@ -0,0 +1,29 @@
+package com.ecommerce.dto.response;
+
+public class LowStockEvent {
+    private Long productId;
+    private String name;
+    private Integer previousStockQuantity;
+    private Integer stockQuantity;
+    private boolean lowStock;
+
+    public LowStockEvent(Long productId, String name, Integer previousStockQuantity, Integer stockQuantity, boolean lowStock) {
+        this.productId = productId;
+        this.name = name;
+        this.previousStockQuantity = previousStockQuantity;
+        this.stockQuantity = stockQuantity;
+        this.lowStock = lowStock;
+    }
+
+    // Getters
+    public Long getProductId() { return productId; }
+
+    public String getName() { return name; }
+
+    public Integer getPreviousStockQuantity() { return previousStockQuantity; }
+
+    // Null when the product was deactivated
+    public Integer getStockQuantity() { return stockQuantity; }
+
+    public boolean isLowStock() { return lowStock; }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class OrderBatchResponse {
+    private int created;
+    private int rejected;
+    private List<Result> results;
+
+    public OrderBatchResponse(List<Result> results) {
+        this.results = results;
+        this.created = (int) results.stream().filter(result -> result.getStatus() == Status.CREATED).count();
+        this.rejected = results.size() - created;
+    }
+
+    // Getters
+    public int getCreated() { return created; }
+
+    public int getRejected() { return rejected; }
+
+    public List<Result> getResults() { return results; }
+
+    public enum Status { CREATED, PRODUCT_NOT_FOUND, INSUFFICIENT_STOCK, INVALID }
+
+    // One per requested order, in request order; orderId and totalAmount only when created
+    public static class Result {
+        private int index;
+        private Status status;
+        private Long orderId;
+        private BigDecimal totalAmount;
+
+        public Result(int index, Status status, Long orderId, BigDecimal totalAmount) {
+            this.index = index;
+            this.status = status;
+            this.orderId = orderId;
+            this.totalAmount = totalAmount;
+        }
+
+        public int getIndex() { return index; }
+
+        public Status getStatus() { return status; }
+
+        public Long getOrderId() { return orderId; }
+
+        public BigDecimal getTotalAmount() { return totalAmount; }
+    }
+}
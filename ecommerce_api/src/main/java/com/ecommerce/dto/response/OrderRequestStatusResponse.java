@@ -0,0 +1,46 @@
+package com.ecommerce.dto.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an order accepted for asynchronous placement, polled through its tracking id.
+ */
+public class OrderRequestStatusResponse {
+
+    public enum Status {
+        QUEUED,
+        PROCESSING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String id;
+    private Status status;
+    private Long orderId;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+
+    public OrderRequestStatusResponse(String id, Status status, Long orderId, String error,
+                                      LocalDateTime submittedAt, LocalDateTime completedAt) {
+        this.id = id;
+        this.status = status;
+        this.orderId = orderId;
+        this.error = error;
+        this.submittedAt = submittedAt;
+        this.completedAt = completedAt;
+    }
+
+    // Getters
+    public String getId() { return id; }
+
+    public Status getStatus() { return status; }
+
+    public Long getOrderId() { return orderId; }
+
+    public String getError() { return error; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+}
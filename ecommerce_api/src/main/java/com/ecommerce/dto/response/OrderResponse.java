@@ -0,0 +1,89 @@
+package com.ecommerce.dto.response;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read model for an order. Refers to the user and products by id only, so it serializes without
+ * walking back into the user's other orders or credentials.
+ */
+public class OrderResponse {
+    private Long id;
+    private Long userId;
+    private OrderStatus orderStatus;
+    private BigDecimal totalAmount;
+    private String shippingAddress;
+    private List<Item> orderItems;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public OrderResponse(Long id, Long userId, OrderStatus orderStatus, BigDecimal totalAmount, String shippingAddress,
+                         List<Item> orderItems, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.orderStatus = orderStatus;
+        this.totalAmount = totalAmount;
+        this.shippingAddress = shippingAddress;
+        this.orderItems = orderItems;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static OrderResponse from(Order order) {
+        List<Item> items = order.getOrderItems().stream()
+            .sorted(Comparator.comparing(OrderItem::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+            .map(Item::from)
+            .toList();
+        return new OrderResponse(order.getId(), order.getUser().getId(), order.getOrderStatus(), order.getTotalAmount(),
+            order.getShippingAddress(), items, order.getCreatedAt(), order.getUpdatedAt());
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public Long getUserId() { return userId; }
+
+    public OrderStatus getOrderStatus() { return orderStatus; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+
+    public String getShippingAddress() { return shippingAddress; }
+
+    public List<Item> getOrderItems() { return orderItems; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public static class Item {
+        private Long productId;
+        private String productName;
+        private Integer quantity;
+        private BigDecimal price;
+
+        public Item(Long productId, String productName, Integer quantity, BigDecimal price) {
+            this.productId = productId;
+            this.productName = productName;
+            this.quantity = quantity;
+            this.price = price;
+        }
+
+        static Item from(OrderItem item) {
+            return new Item(item.getProduct().getId(), item.getProduct().getName(), item.getQuantity(), item.getPrice());
+        }
+
+        public Long getProductId() { return productId; }
+
+        public String getProductName() { return productName; }
+
+        public Integer getQuantity() { return quantity; }
+
+        public BigDecimal getPrice() { return price; }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.dto.response;
+
+import com.ecommerce.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+
+public class OrderStatusEvent {
+    private long sequence;
+    private Long orderId;
+    private Long userId;
+    private OrderStatus previousStatus;
+    private OrderStatus orderStatus;
+    private LocalDateTime changedAt;
+
+    public OrderStatusEvent(long sequence, Long orderId, Long userId, OrderStatus previousStatus,
+                            OrderStatus orderStatus, LocalDateTime changedAt) {
+        this.sequence = sequence;
+        this.orderId = orderId;
+        this.userId = userId;
+        this.previousStatus = previousStatus;
+        this.orderStatus = orderStatus;
+        this.changedAt = changedAt;
+    }
+
+    // Getters
+    public long getSequence() { return sequence; }
+
+    public Long getOrderId() { return orderId; }
+
+    public Long getUserId() { return userId; }
+
+    public OrderStatus getPreviousStatus() { return previousStatus; }
+
+    public OrderStatus getOrderStatus() { return orderStatus; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.dto.response;
+
+import java.util.List;
+
+public class ProductBatchResponse {
+    private int found;
+    private int missing;
+    private List<Item> items;
+
+    public ProductBatchResponse(List<Item> items) {
+        this.items = items;
+        this.found = (int) items.stream().filter(item -> item.getStatus() == Status.FOUND).count();
+        this.missing = items.size() - found;
+    }
+
+    // Getters
+    public int getFound() { return found; }
+
+    public int getMissing() { return missing; }
+
+    public List<Item> getItems() { return items; }
+
+    public enum Status { FOUND, NOT_FOUND }
+
+    public static class Item {
+        private Long id;
+        private Status status;
+        private ProductResponse product;
+
+        public Item(Long id, Status status, ProductResponse product) {
+            this.id = id;
+            this.status = status;
+            this.product = product;
+        }
+
+        public Long getId() { return id; }
+
+        public Status getStatus() { return status; }
+
+        public ProductResponse getProduct() { return product; }
+    }
+}
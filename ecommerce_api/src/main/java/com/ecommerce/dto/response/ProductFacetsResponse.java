@@ -0,0 +1,45 @@
+package com.ecommerce.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public class ProductFacetsResponse {
+    private long total;
+    private Map<String, Long> categories;
+    private Map<String, Long> brands;
+    private List<PriceBucket> priceBuckets;
+
+    public ProductFacetsResponse(long total, Map<String, Long> categories, Map<String, Long> brands, List<PriceBucket> priceBuckets) {
+        this.total = total;
+        this.categories = categories;
+        this.brands = brands;
+        this.priceBuckets = priceBuckets;
+    }
+
+    public long getTotal() { return total; }
+
+    public Map<String, Long> getCategories() { return categories; }
+
+    public Map<String, Long> getBrands() { return brands; }
+
+    public List<PriceBucket> getPriceBuckets() { return priceBuckets; }
+
+    public static class PriceBucket {
+        private BigDecimal from;
+        private BigDecimal to;
+        private long count;
+
+        public PriceBucket(BigDecimal from, BigDecimal to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public BigDecimal getFrom() { return from; }
+
+        public BigDecimal getTo() { return to; }
+
+        public long getCount() { return count; }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.dto.response;
+
+import java.util.List;
+
+public class ProductImportResponse {
+    private long received;
+    private long imported;
+    private long failed;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    public ProductImportResponse(long received, long imported, long failed, long elapsedMs,
+                                 List<RowError> errors, boolean errorsTruncated) {
+        this.received = received;
+        this.imported = imported;
+        this.failed = failed;
+        this.elapsedMs = elapsedMs;
+        this.rowsPerSecond = elapsedMs == 0 ? received : received * 1000.0 / elapsedMs;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    // Getters
+    public long getReceived() { return received; }
+
+    public long getImported() { return imported; }
+
+    public long getFailed() { return failed; }
+
+    public long getElapsedMs() { return elapsedMs; }
+
+    public double getRowsPerSecond() { return rowsPerSecond; }
+
+    public List<RowError> getErrors() { return errors; }
+
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+
+    public static class RowError {
+        private long row;
+        private String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() { return row; }
+
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.dto.response;
+
+import com.ecommerce.entity.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model for product endpoints. Carries only the product's own columns, so serializing it
+ * can never reach into order history.
+ */
+public class ProductResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private String category;
+    private String brand;
+    private String imageUrl;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Parameter names double as the projected columns for repository DTO queries
+    public ProductResponse(Long id, String name, String description, BigDecimal price, Integer stockQuantity,
+                           String category, String brand, String imageUrl, Boolean isActive,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.category = category;
+        this.brand = brand;
+        this.imageUrl = imageUrl;
+        this.isActive = isActive;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static ProductResponse from(Product product) {
+        return new ProductResponse(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+            product.getStockQuantity(), product.getCategory(), product.getBrand(), product.getImageUrl(),
+            product.getIsActive(), product.getCreatedAt(), product.getUpdatedAt());
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public String getName() { return name; }
+
+    public String getDescription() { return description; }
+
+    public BigDecimal getPrice() { return price; }
+
+    public Integer getStockQuantity() { return stockQuantity; }
+
+    public String getCategory() { return category; }
+
+    public String getBrand() { return brand; }
+
+    public String getImageUrl() { return imageUrl; }
+
+    public Boolean getIsActive() { return isActive; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
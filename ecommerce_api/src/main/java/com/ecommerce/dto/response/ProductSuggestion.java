@@ -0,0 +1,27 @@
+package com.ecommerce.dto.response;
+
+public class ProductSuggestion {
+    private String text;
+    private Type type;
+    private Long productId;
+    private long popularity;
+
+    public ProductSuggestion(String text, Type type, Long productId, long popularity) {
+        this.text = text;
+        this.type = type;
+        this.productId = productId;
+        this.popularity = popularity;
+    }
+
+    // Getters
+    public String getText() { return text; }
+
+    public Type getType() { return type; }
+
+    // Null for brand suggestions
+    public Long getProductId() { return productId; }
+
+    public long getPopularity() { return popularity; }
+
+    public enum Type { PRODUCT, BRAND }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.dto.response;
+
+import java.util.List;
+
+public class StockAdjustmentResponse {
+    private int updated;
+    private int failed;
+    private List<Result> results;
+
+    public StockAdjustmentResponse(List<Result> results) {
+        this.results = results;
+        this.updated = (int) results.stream().filter(result -> result.getStatus() == Status.UPDATED).count();
+        this.failed = results.size() - updated;
+    }
+
+    // Getters
+    public int getUpdated() { return updated; }
+
+    public int getFailed() { return failed; }
+
+    public List<Result> getResults() { return results; }
+
+    public enum Status { UPDATED, NOT_FOUND, INSUFFICIENT_STOCK, INVALID }
+
+    public static class Result {
+        private Long productId;
+        private Status status;
+        private Integer stockQuantity;
+
+        public Result(Long productId, Status status, Integer stockQuantity) {
+            this.productId = productId;
+            this.status = status;
+            this.stockQuantity = stockQuantity;
+        }
+
+        public Long getProductId() { return productId; }
+
+        public Status getStatus() { return status; }
+
+        public Integer getStockQuantity() { return stockQuantity; }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -15,7 +16,13 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products",
+       indexes = {
+           @Index(name = "idx_products_active_name", columnList = "is_active, name, id"),
+           @Index(name = "idx_products_active_price", columnList = "is_active, price, id"),
+           @Index(name = "idx_products_active_created", columnList = "is_active, created_at, id"),
+           @Index(name = "idx_products_category_active", columnList = "category, is_active, id")
+       })
 @EntityListeners(AuditingEntityListener.class)
 public class Product {
     
@@ -51,6 +58,7 @@ public class Product {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
     private Set<OrderItem> orderItems = new HashSet<>();
 
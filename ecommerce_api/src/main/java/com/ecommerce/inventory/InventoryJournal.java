@@ -0,0 +1,111 @@
+package com.ecommerce.inventory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of committed stock changes, split into segments named after their first sequence
+ * number. The ledger seals the open segment at every flush and deletes sealed segments once the
+ * database checkpoint covers them; a torn record at the end of a segment is ignored on replay.
+ */
+class InventoryJournal implements Closeable {
+
+    // sequence, product id, delta
+    static final int RECORD_BYTES = 8 + 8 + 4;
+
+    private static final String PREFIX = "inventory-";
+    private static final String SUFFIX = ".journal";
+
+    record Entry(long sequence, long productId, int delta) {}
+
+    private final Path directory;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private FileChannel channel;
+    private Path segment;
+    private long nextSequence;
+    private int unsealed;
+
+    InventoryJournal(Path directory, long nextSequence) throws IOException {
+        this.directory = directory;
+        this.nextSequence = nextSequence;
+        Files.createDirectories(directory);
+        open();
+    }
+
+    synchronized long append(long productId, int delta) throws IOException {
+        record.clear();
+        record.putLong(nextSequence).putLong(productId).putInt(delta).flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        unsealed++;
+        return nextSequence++;
+    }
+
+    synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    // Forces and closes the open segment and starts the next one; null when nothing was appended
+    synchronized Path seal() throws IOException {
+        if (unsealed == 0) {
+            return null;
+        }
+        Path sealed = segment;
+        channel.force(false);
+        channel.close();
+        open();
+        return sealed;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.force(false);
+        channel.close();
+        if (unsealed == 0) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    // Entries after the given sequence across all segments in the directory, in sequence order
+    static List<Entry> read(Path directory, long afterSequence) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (Path segment : segments(directory)) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+            while (buffer.remaining() >= RECORD_BYTES) {
+                Entry entry = new Entry(buffer.getLong(), buffer.getLong(), buffer.getInt());
+                if (entry.sequence() > afterSequence) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        // Zero-padded names sort in sequence order
+        segments.sort(null);
+        return segments;
+    }
+
+    private void open() throws IOException {
+        segment = directory.resolve(String.format("%s%020d%s", PREFIX, nextSequence, SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        unsealed = 0;
+    }
+}
@@ -0,0 +1,489 @@
+package com.ecommerce.inventory;
+
+import com.ecommerce.catalog.ProductCache;
+import com.ecommerce.catalog.ProductChangedEvent;
+import com.ecommerce.catalog.ProductResponseCache;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional in-memory owner of available stock, so checkouts of the same product contend on one
+ * compare-and-set instead of a database row lock. Each product has its own cell: a reservation
+ * takes stock from {@code available} and holds it until the order commits, when the change is
+ * journaled and queued as a delta that a scheduled flush writes to {@code products} in one batch
+ * together with the journal checkpoint, then announces as {@link ProductChangedEvent}s. On start
+ * the journal past that checkpoint is replayed into the database before the cells are loaded from it.
+ *
+ * <p>Every cell keeps {@code available + held == database stock + pending}; reconciliation flushes
+ * and compares that against the database, adopting the database value on mismatch (product edits
+ * land this way; stock adjustments go through {@link #adjust}). The ledger assumes it is the only writer of order stock, i.e. a single node
+ * takes orders. A crash between journaling and a failed commit leaves stock under-counted, never
+ * over-sold.
+ */
+@Component
+public class InventoryLedger implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryLedger.class);
+
+    static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS inventory_checkpoint (id INT PRIMARY KEY, journal_sequence BIGINT NOT NULL)";
+    private static final String SELECT_CHECKPOINT_SQL = "SELECT journal_sequence FROM inventory_checkpoint WHERE id = 1";
+    private static final String INSERT_CHECKPOINT_SQL = "INSERT INTO inventory_checkpoint (id, journal_sequence) VALUES (1, 0)";
+    private static final String UPDATE_CHECKPOINT_SQL = "UPDATE inventory_checkpoint SET journal_sequence = ? WHERE id = 1";
+    private static final String APPLY_DELTA_SQL =
+        "UPDATE products SET stock_quantity = stock_quantity + ?, updated_at = ? WHERE id = ?";
+    private static final String SELECT_STOCK_SQL = "SELECT stock_quantity FROM products WHERE id = ?";
+    private static final String SELECT_ALL_STOCK_SQL = "SELECT id, stock_quantity FROM products";
+
+    @Value("${app.inventory.ledger.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.inventory.ledger.journal-dir:inventory-journal}")
+    private Path journalDirectory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductResponseCache responseCache;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final class Cell {
+        final AtomicInteger available;
+        final AtomicInteger held = new AtomicInteger();
+        final AtomicInteger pending = new AtomicInteger();
+
+        Cell(int available) {
+            this.available = new AtomicInteger(available);
+        }
+    }
+
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+    // Shared by every cell update, taken exclusively only to cut a consistent flush or reconcile
+    private final ReadWriteLock cut = new ReentrantReadWriteLock();
+    private final List<Path> sealedSegments = new ArrayList<>();
+    private final AtomicLong drift = new AtomicLong();
+    private InventoryJournal journal;
+    private volatile long checkpoint;
+    private volatile boolean ready;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        List<Long> checkpoints = jdbcTemplate.queryForList(SELECT_CHECKPOINT_SQL, Long.class);
+        if (checkpoints.isEmpty()) {
+            jdbcTemplate.update(INSERT_CHECKPOINT_SQL);
+        }
+        long checkpoint = checkpoints.isEmpty() ? 0 : checkpoints.get(0);
+
+        List<InventoryJournal.Entry> entries = InventoryJournal.read(journalDirectory, checkpoint);
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (InventoryJournal.Entry entry : entries) {
+            deltas.merge(entry.productId(), entry.delta(), Integer::sum);
+            checkpoint = entry.sequence();
+        }
+        if (!entries.isEmpty()) {
+            persist(deltas, checkpoint);
+        }
+        for (Path segment : InventoryJournal.segments(journalDirectory)) {
+            Files.delete(segment);
+        }
+
+        jdbcTemplate.query(SELECT_ALL_STOCK_SQL, row -> {
+            cells.put(row.getLong(1), new Cell(row.getInt(2)));
+        });
+        this.checkpoint = checkpoint;
+        journal = new InventoryJournal(journalDirectory, checkpoint + 1);
+        ready = true;
+        logger.info("Inventory ledger loaded {} products, replayed {} journal entries up to sequence {}",
+            cells.size(), entries.size(), checkpoint);
+    }
+
+    /**
+     * Takes stock for the current transaction, returning false when there is not enough. The
+     * change is journaled when the transaction commits and given back if it rolls back.
+     */
+    public boolean reserve(Long productId, int quantity) {
+        cut.readLock().lock();
+        try {
+            Cell cell = cell(productId);
+            if (cell == null) {
+                return false;
+            }
+            int current;
+            do {
+                current = cell.available.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!cell.available.compareAndSet(current, current - quantity));
+            cell.held.addAndGet(quantity);
+        } finally {
+            cut.readLock().unlock();
+        }
+        onCompletion(new Change(productId, -quantity));
+        return true;
+    }
+
+    // Returns stock once the current transaction commits
+    public void release(Long productId, int quantity) {
+        onCompletion(new Change(productId, quantity));
+    }
+
+    // Outcome of an adjustment; stockQuantity is the product's total stock after it (or as is, when not applied)
+    public record Adjustment(boolean applied, int stockQuantity) {}
+
+    /**
+     * Changes a product's stock by delta, or sets its total stock to quantity, for the current
+     * transaction. Stock held by open reservations cannot be taken away, so a change that would
+     * need it is not applied. Reductions take effect at once, additions when the transaction
+     * commits; both are journaled and written behind like reservations. Returns null for an
+     * unknown product.
+     */
+    public Adjustment adjust(Long productId, Integer delta, Integer quantity) {
+        int change;
+        int total;
+        // Exclusive so that held stays put while the change is worked out
+        cut.writeLock().lock();
+        try {
+            Cell cell = cell(productId);
+            if (cell == null) {
+                return null;
+            }
+            total = cell.available.get() + cell.held.get() + ownChanges(productId);
+            change = quantity != null ? quantity - total : delta;
+            if (cell.available.get() + change < 0) {
+                return new Adjustment(false, total);
+            }
+            if (change < 0) {
+                cell.available.addAndGet(change);
+                cell.held.addAndGet(-change);
+            }
+        } finally {
+            cut.writeLock().unlock();
+        }
+        if (change != 0) {
+            onCompletion(new Change(productId, change));
+        }
+        return new Adjustment(true, total + change);
+    }
+
+    int available(Long productId) {
+        Cell cell = cells.get(productId);
+        return cell == null ? 0 : cell.available.get();
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.ledger.flush-interval-ms:500}")
+    public synchronized void flush() {
+        if (!ready) {
+            return;
+        }
+        Map<Long, Integer> deltas;
+        long checkpoint;
+        cut.writeLock().lock();
+        try {
+            deltas = drain();
+            checkpoint = journal.lastSequence();
+        } finally {
+            cut.writeLock().unlock();
+        }
+        write(deltas, checkpoint);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.ledger.reconcile-interval-ms:300000}",
+               initialDelayString = "${app.inventory.ledger.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        reconcile(null, true);
+    }
+
+    // Another writer changed stock: pick it up now rather than at the next reconciliation
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isWriteBehind()) {
+            return;
+        }
+        reconcile(List.of(event.getProductId()), false);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() throws IOException {
+        if (!ready) {
+            return;
+        }
+        flush();
+        ready = false;
+        journal.close();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("inventory.ledger.unflushed", this, ledger -> ledger.ready ? ledger.journal.lastSequence() - ledger.checkpoint : 0)
+            .description("Committed stock changes journaled but not yet written to the database")
+            .register(registry);
+        FunctionCounter.builder("inventory.ledger.drift", drift, AtomicLong::get)
+            .description("Products whose ledger stock disagreed with the database at reconciliation")
+            .register(registry);
+    }
+
+    // Null ids reconcile every product; only scheduled runs count disagreements as drift
+    synchronized void reconcile(Collection<Long> productIds, boolean scheduled) {
+        if (!ready) {
+            return;
+        }
+        cut.writeLock().lock();
+        try {
+            if (!write(drain(), journal.lastSequence())) {
+                return;
+            }
+            Map<Long, Integer> stock = new HashMap<>();
+            if (productIds == null) {
+                jdbcTemplate.query(SELECT_ALL_STOCK_SQL, row -> {
+                    stock.put(row.getLong(1), row.getInt(2));
+                });
+            } else {
+                for (Long id : productIds) {
+                    jdbcTemplate.queryForList(SELECT_STOCK_SQL, Integer.class, id).forEach(value -> stock.put(id, value));
+                }
+            }
+            int adjusted = 0;
+            for (Map.Entry<Long, Integer> entry : stock.entrySet()) {
+                Cell cell = cells.get(entry.getKey());
+                if (cell == null) {
+                    cells.put(entry.getKey(), new Cell(entry.getValue()));
+                } else if (cell.available.get() + cell.held.get() != entry.getValue()) {
+                    cell.available.set(entry.getValue() - cell.held.get());
+                    adjusted++;
+                }
+            }
+            if (scheduled && adjusted > 0) {
+                drift.addAndGet(adjusted);
+                logger.warn("Inventory reconciliation adopted database stock for {} products", adjusted);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Inventory reconciliation failed: {}", e.getMessage());
+        } finally {
+            cut.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the cut lock exclusively
+    private Map<Long, Integer> drain() {
+        Map<Long, Integer> deltas = new HashMap<>();
+        cells.forEach((id, cell) -> {
+            int delta = cell.pending.getAndSet(0);
+            if (delta != 0) {
+                deltas.put(id, delta);
+            }
+        });
+        try {
+            Path sealed = journal.seal();
+            if (sealed != null) {
+                sealedSegments.add(sealed);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to seal inventory journal segment: {}", e.getMessage());
+        }
+        return deltas;
+    }
+
+    // On failure the deltas go back to their cells and the sealed segments stay for the next attempt
+    private boolean write(Map<Long, Integer> deltas, long checkpoint) {
+        if (deltas.isEmpty() && sealedSegments.isEmpty()) {
+            return true;
+        }
+        List<Product> flushed;
+        try {
+            flushed = persist(deltas, checkpoint);
+        } catch (RuntimeException e) {
+            cut.readLock().lock();
+            try {
+                deltas.forEach((id, delta) -> cells.get(id).pending.addAndGet(delta));
+            } finally {
+                cut.readLock().unlock();
+            }
+            logger.warn("Inventory write-behind of {} products failed, will retry: {}", deltas.size(), e.getMessage());
+            return false;
+        }
+        for (Path segment : sealedSegments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                logger.warn("Failed to delete inventory journal segment {}: {}", segment, e.getMessage());
+            }
+        }
+        sealedSegments.clear();
+        this.checkpoint = checkpoint;
+        // The flush is this node's write of order stock, so it is what tells the catalog about it
+        for (Product product : flushed) {
+            productCache.invalidate(product.getId());
+            responseCache.evict(product.getId());
+            eventPublisher.publishEvent(new ProductChangedEvent(product, true));
+        }
+        return true;
+    }
+
+    // Returns the written products as committed, read back in the same transaction
+    private List<Product> persist(Map<Long, Integer> deltas, long checkpoint) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> arguments = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> arguments.add(new Object[] {delta, now, id}));
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, checkpoint);
+            if (arguments.isEmpty()) {
+                return List.of();
+            }
+            jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, arguments);
+            return productRepository.findAllById(deltas.keySet());
+        });
+    }
+
+    private Cell cell(Long productId) {
+        // Products created after start are loaded on first use; nothing else has touched their stock yet
+        return cells.computeIfAbsent(productId, id -> {
+            List<Integer> stock = jdbcTemplate.queryForList(SELECT_STOCK_SQL, Integer.class, id);
+            return stock.isEmpty() || stock.get(0) == null ? null : new Cell(stock.get(0));
+        });
+    }
+
+    // What the current transaction has already reserved, released or adjusted for the product
+    private static int ownChanges(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return 0;
+        }
+        int changes = 0;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Change change && change.productId.equals(productId)) {
+                changes += change.delta;
+            }
+        }
+        return changes;
+    }
+
+    private void onCompletion(Change change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(change);
+        } else {
+            change.beforeCommit(false);
+            change.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    /**
+     * One reservation (negative delta) or release (positive delta) following its transaction:
+     * journaled and queued before commit so the order row and the journal entry agree, and undone
+     * if the commit fails. Released stock only becomes available after the commit.
+     */
+    private final class Change implements TransactionSynchronization {
+
+        private final Long productId;
+        private final int delta;
+        private boolean journaled;
+
+        Change(Long productId, int delta) {
+            this.productId = productId;
+            this.delta = delta;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            cut.readLock().lock();
+            try {
+                record(delta);
+                journaled = true;
+            } finally {
+                cut.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED && delta < 0) {
+                return;
+            }
+            cut.readLock().lock();
+            try {
+                Cell cell = cell(productId);
+                if (status == STATUS_COMMITTED) {
+                    cell.held.addAndGet(-delta);
+                    cell.available.addAndGet(delta);
+                    return;
+                }
+                if (journaled) {
+                    record(-delta);
+                }
+                if (delta < 0) {
+                    cell.held.addAndGet(delta);
+                    cell.available.addAndGet(-delta);
+                }
+            } finally {
+                cut.readLock().unlock();
+            }
+        }
+
+        // Caller holds the cut lock shared
+        private void record(int change) {
+            try {
+                journal.append(productId, change);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to journal stock change for product " + productId, e);
+            }
+            Cell cell = cell(productId);
+            cell.pending.addAndGet(change);
+            cell.held.addAndGet(change);
+        }
+    }
+}
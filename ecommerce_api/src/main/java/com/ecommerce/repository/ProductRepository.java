@@ -1,33 +1,56 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.response.ProductResponse;
 import com.ecommerce.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     
-    Page<Product> findByIsActiveTrue(Pageable pageable);
+    Page<ProductResponse> findByIsActiveTrue(Pageable pageable);
+
+    Window<Product> findByIsActiveTrue(ScrollPosition position, Sort sort, Limit limit);
     
-    Page<Product> findByCategoryAndIsActiveTrue(String category, Pageable pageable);
+    Page<ProductResponse> findByCategoryAndIsActiveTrue(String category, Pageable pageable);
+
+    Window<Product> findByCategoryAndIsActiveTrue(String category, ScrollPosition position, Sort sort, Limit limit);
     
-    Page<Product> findByNameContainingIgnoreCaseAndIsActiveTrue(String name, Pageable pageable);
+    Page<ProductResponse> findByNameContainingIgnoreCaseAndIsActiveTrue(String name, Pageable pageable);
+
+    Window<Product> findByNameContainingIgnoreCaseAndIsActiveTrue(String name, ScrollPosition position, Sort sort, Limit limit);
     
-    @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
-           "(:category IS NULL OR p.category = :category) AND " +
-           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR p.price <= :maxPrice)")
-    Page<Product> findProductsWithFilters(@Param("category") String category,
+    @Query(value = "SELECT new com.ecommerce.dto.response.ProductResponse(p.id, p.name, p.description, p.price, " +
+                   "p.stockQuantity, p.category, p.brand, p.imageUrl, p.isActive, p.createdAt, p.updatedAt) " +
+                   "FROM Product p WHERE p.isActive = true AND " +
+                   "(:category IS NULL OR p.category = :category) AND " +
+                   "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+                   "(:maxPrice IS NULL OR p.price <= :maxPrice)",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isActive = true AND " +
+                        "(:category IS NULL OR p.category = :category) AND " +
+                        "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+                        "(:maxPrice IS NULL OR p.price <= :maxPrice)")
+    Page<ProductResponse> findProductsWithFilters(@Param("category") String category,
                                         @Param("minPrice") BigDecimal minPrice,
                                         @Param("maxPrice") BigDecimal maxPrice,
                                         Pageable pageable);
     
-    List<Product> findByStockQuantityLessThan(Integer threshold);
+    List<ProductResponse> findByIsActiveTrueAndStockQuantityLessThanOrderByStockQuantityAscIdAsc(Integer threshold, Pageable pageable);
+
+    List<Product> findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<Product> findByUpdatedAtAfterOrderByUpdatedAtAscIdAsc(LocalDateTime updatedAt, Pageable pageable);
 }
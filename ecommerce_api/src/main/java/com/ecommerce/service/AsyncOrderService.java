@@ -0,0 +1,297 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.request.OrderRequest;
+import com.ecommerce.dto.response.OrderRequestStatusResponse;
+import com.ecommerce.entity.Order;
+import com.ecommerce.exception.BadRequestException;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.exception.ServiceUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous order placement. An accepted request is written to {@code order_requests} before
+ * the caller gets its tracking id, then handed to a bounded pool of workers that run
+ * {@link OrderService#createOrder}. A worker claims the row first and marks it completed in the
+ * same transaction that creates the order, so a request whose worker died is simply placed again
+ * by whichever node picks it up: on start every queued request is resumed, and a periodic sweep
+ * resumes requests left queued or in progress for longer than {@code stale-after}.
+ */
+@Service
+public class AsyncOrderService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncOrderService.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS order_requests (id VARCHAR(36) PRIMARY KEY, user_id BIGINT NOT NULL, " +
+        "payload TEXT NOT NULL, status VARCHAR(16) NOT NULL, claim VARCHAR(36), order_id BIGINT, error VARCHAR(500), " +
+        "submitted_at TIMESTAMP NOT NULL, started_at TIMESTAMP, completed_at TIMESTAMP)";
+    private static final String INSERT_SQL =
+        "INSERT INTO order_requests (id, user_id, payload, status, submitted_at) VALUES (?, ?, ?, 'QUEUED', ?)";
+    private static final String DELETE_SQL = "DELETE FROM order_requests WHERE id = ? AND status = 'QUEUED'";
+    private static final String SELECT_SQL =
+        "SELECT user_id, status, order_id, error, submitted_at, completed_at FROM order_requests WHERE id = ?";
+    private static final String CLAIM_SQL =
+        "UPDATE order_requests SET status = 'PROCESSING', claim = ?, started_at = ? WHERE id = ? AND status = 'QUEUED'";
+    private static final String COMPLETE_SQL =
+        "UPDATE order_requests SET status = 'COMPLETED', order_id = ?, completed_at = ? WHERE id = ? AND claim = ?";
+    private static final String FAIL_SQL =
+        "UPDATE order_requests SET status = 'FAILED', error = ?, completed_at = ? WHERE id = ? AND claim = ?";
+    private static final String REQUEUE_STALE_SQL =
+        "UPDATE order_requests SET status = 'QUEUED', claim = NULL WHERE status = 'PROCESSING' AND started_at < ?";
+    private static final String SELECT_QUEUED_SQL =
+        "SELECT id, user_id, payload, submitted_at FROM order_requests WHERE status = 'QUEUED' AND submitted_at < ? " +
+        "ORDER BY submitted_at";
+    private static final String PURGE_SQL =
+        "DELETE FROM order_requests WHERE status IN ('COMPLETED', 'FAILED') AND completed_at < ?";
+
+    @Value("${app.orders.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.orders.async.workers:8}")
+    private int workers;
+
+    @Value("${app.orders.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.orders.async.stale-after:5m}")
+    private Duration staleAfter;
+
+    @Value("${app.orders.async.retention:7d}")
+    private Duration retention;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private record Job(String id, Long userId, OrderRequest request, LocalDateTime submittedAt) {}
+
+    // Requests queued or running on this node, so the sweep does not hand them out twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+    private Timer waitTimer;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        AtomicInteger threads = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "order-async-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        int resumed = resume(LocalDateTime.now());
+        logger.info("Async order placement started with {} workers, resumed {} queued requests", workers, resumed);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        // Requests not yet started stay QUEUED in the table and are resumed on the next start;
+        // running ones are left to finish rather than interrupted mid-transaction
+        executor.getQueue().clear();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public OrderRequestStatusResponse submit(Long userId, OrderRequest orderRequest) {
+        String id = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        Job job = new Job(id, userId, orderRequest, now);
+        // Inside a caller's transaction (an idempotent request) workers only get the job once its row is
+        // committed; should the queue fill up in between, the request stays queued for the sweep
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        if (inTransaction && executor.getQueue().remainingCapacity() == 0) {
+            throw new ServiceUnavailableException("Order queue is full, retry shortly");
+        }
+        jdbcTemplate.update(INSERT_SQL, id, userId, writePayload(orderRequest), Timestamp.valueOf(now));
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(job);
+                }
+            });
+        } else if (!enqueue(job)) {
+            jdbcTemplate.update(DELETE_SQL, id);
+            throw new ServiceUnavailableException("Order queue is full, retry shortly");
+        }
+        return new OrderRequestStatusResponse(id, OrderRequestStatusResponse.Status.QUEUED, null, null, now, null);
+    }
+
+    // Only the submitting user, or staff, may see a request; anyone else gets a 404
+    public OrderRequestStatusResponse getStatus(String id, Long userId, boolean privileged) {
+        List<OrderRequestStatusResponse> rows = jdbcTemplate.query(SELECT_SQL, (row, i) -> {
+            if (!privileged && row.getLong(1) != userId) {
+                return null;
+            }
+            Timestamp completedAt = row.getTimestamp(6);
+            return new OrderRequestStatusResponse(id, OrderRequestStatusResponse.Status.valueOf(row.getString(2)),
+                row.getObject(3, Long.class), row.getString(4), row.getTimestamp(5).toLocalDateTime(),
+                completedAt == null ? null : completedAt.toLocalDateTime());
+        }, id);
+        if (rows.isEmpty() || rows.get(0) == null) {
+            throw new ResourceNotFoundException("Order request not found with id: " + id);
+        }
+        return rows.get(0);
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.async.sweep-interval-ms:60000}",
+               initialDelayString = "${app.orders.async.sweep-interval-ms:60000}")
+    public void sweep() {
+        if (executor == null) {
+            return;
+        }
+        LocalDateTime staleBefore = LocalDateTime.now().minus(staleAfter);
+        int requeued = jdbcTemplate.update(REQUEUE_STALE_SQL, Timestamp.valueOf(staleBefore));
+        int resumed = resume(staleBefore);
+        if (requeued > 0 || resumed > 0) {
+            logger.warn("Resumed {} stale order requests ({} had stopped mid-placement)", resumed, requeued);
+        }
+        jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        waitTimer = Timer.builder("orders.async.wait")
+            .description("Time an accepted order request waited before a worker started placing it")
+            .register(registry);
+        Gauge.builder("orders.async.queue.depth", this, service -> service.executor == null ? 0 : service.executor.getQueue().size())
+            .description("Accepted order requests waiting for a worker")
+            .register(registry);
+    }
+
+    private int resume(LocalDateTime submittedBefore) {
+        List<Job> jobs = jdbcTemplate.query(SELECT_QUEUED_SQL, (row, i) -> new Job(row.getString(1), row.getLong(2),
+            readPayload(row.getString(3)), row.getTimestamp(4).toLocalDateTime()), Timestamp.valueOf(submittedBefore));
+        int resumed = 0;
+        for (Job job : jobs) {
+            if (inFlight.contains(job.id())) {
+                continue;
+            }
+            if (!enqueue(job)) {
+                // Full: the rest stay queued in the table for the next sweep
+                break;
+            }
+            resumed++;
+        }
+        return resumed;
+    }
+
+    private boolean enqueue(Job job) {
+        inFlight.add(job.id());
+        try {
+            executor.execute(() -> process(job));
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(job.id());
+            return false;
+        }
+    }
+
+    private void process(Job job) {
+        try {
+            String claim = UUID.randomUUID().toString();
+            LocalDateTime startedAt = LocalDateTime.now();
+            if (jdbcTemplate.update(CLAIM_SQL, claim, Timestamp.valueOf(startedAt), job.id()) == 0) {
+                // Already taken by another node, or deleted after a rejected submit
+                return;
+            }
+            if (waitTimer != null) {
+                waitTimer.record(Duration.between(job.submittedAt(), startedAt));
+            }
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    Order order = orderService.createOrder(job.userId(), job.request());
+                    if (jdbcTemplate.update(COMPLETE_SQL, order.getId(), Timestamp.valueOf(LocalDateTime.now()), job.id(), claim) == 0) {
+                        // Reclaimed by a sweep while this worker stalled: roll back so the order is placed only once
+                        throw new IllegalStateException("Order request " + job.id() + " was reclaimed");
+                    }
+                });
+            } catch (RuntimeException e) {
+                logger.debug("Order request {} failed: {}", job.id(), e.getMessage());
+                jdbcTemplate.update(FAIL_SQL, errorMessage(e), Timestamp.valueOf(LocalDateTime.now()), job.id(), claim);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Could not process order request {}: {}", job.id(), e.getMessage());
+        } finally {
+            inFlight.remove(job.id());
+        }
+    }
+
+    // Business failures are reported to the client as is; anything else stays in the log
+    private static String errorMessage(RuntimeException e) {
+        if (!(e instanceof IllegalArgumentException || e instanceof ResourceNotFoundException || e instanceof BadRequestException)) {
+            logger.error("Order placement failed unexpectedly", e);
+            return "Order could not be placed";
+        }
+        String message = String.valueOf(e.getMessage());
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private String writePayload(OrderRequest orderRequest) {
+        try {
+            return objectMapper.writeValueAsString(orderRequest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order request", e);
+        }
+    }
+
+    private OrderRequest readPayload(String payload) {
+        try {
+            return objectMapper.readValue(payload, OrderRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read queued order request", e);
+        }
+    }
+}
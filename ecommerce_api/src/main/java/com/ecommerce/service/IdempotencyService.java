@@ -0,0 +1,215 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.BadRequestException;
+import com.ecommerce.exception.ConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per user and Idempotency-Key. The first call claims the key by
+ * inserting its row, so concurrent retries on any node see the claim and get a 409 instead of
+ * running the request again. The request then runs in a transaction that also stores its response
+ * on the claim, so the order and the stored response commit together or not at all; every later
+ * retry replays it. A claim abandoned past {@code in-progress-timeout} may be taken over, and the
+ * call that lost it can no longer complete and rolls back. Failed calls release the key so the
+ * client can try again. Completed responses are also kept in a bounded in-memory cache so most
+ * retries never reach the database.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS idempotency_keys (user_id BIGINT NOT NULL, idempotency_key VARCHAR(255) NOT NULL, " +
+        "request_hash VARCHAR(64) NOT NULL, response_status INT, response_body TEXT, stored_at TIMESTAMP NOT NULL, " +
+        "PRIMARY KEY (user_id, idempotency_key))";
+    private static final String CLAIM_SQL =
+        "INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, stored_at) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_SQL =
+        "SELECT request_hash, response_status, response_body, stored_at FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ?";
+    // Both only touch the claim this call made: stored_at of an unfinished claim identifies it
+    private static final String COMPLETE_SQL =
+        "UPDATE idempotency_keys SET response_status = ?, response_body = ?, stored_at = ? " +
+        "WHERE user_id = ? AND idempotency_key = ? AND stored_at = ? AND response_status IS NULL";
+    private static final String RELEASE_SQL =
+        "DELETE FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ? AND stored_at = ? AND response_status IS NULL";
+    private static final String TAKE_OVER_SQL =
+        "DELETE FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ? AND stored_at = ?";
+    private static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE stored_at < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final Cache<String, StoredResponse> responses;
+
+    // A null status means the claiming call is still running
+    record StoredResponse(String requestHash, Integer status, String body, LocalDateTime storedAt) {}
+
+    // The action's response and, when it succeeded, the body stored for it
+    private record Outcome(ResponseEntity<?> response, String body) {}
+
+    public IdempotencyService(@Value("${app.orders.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.orders.idempotency.in-progress-timeout:1m}") Duration inProgressTimeout,
+                              @Value("${app.orders.idempotency.maximum-size:100000}") long maximumSize) {
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+        this.responses = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    @PostConstruct
+    void createTable() {
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+    }
+
+    public ResponseEntity<?> execute(Long userId, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        String cacheKey = userId + ":" + key;
+        StoredResponse stored = responses.getIfPresent(cacheKey);
+        // Whole seconds, so the value reads back unchanged from a TIMESTAMP column of any precision
+        Timestamp claimedAt = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        if (stored == null) {
+            stored = claim(userId, key, requestHash, claimedAt);
+        }
+        if (stored != null) {
+            return replay(cacheKey, stored, requestHash);
+        }
+
+        LocalDateTime completedAt = LocalDateTime.now();
+        Outcome outcome;
+        try {
+            outcome = new TransactionTemplate(transactionManager).execute(status -> {
+                ResponseEntity<?> response = action.get();
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    return new Outcome(response, null);
+                }
+                return new Outcome(response, complete(userId, key, claimedAt, response, completedAt));
+            });
+        } catch (RuntimeException e) {
+            jdbcTemplate.update(RELEASE_SQL, userId, key, claimedAt);
+            throw e;
+        }
+        if (outcome.body() == null) {
+            jdbcTemplate.update(RELEASE_SQL, userId, key, claimedAt);
+            return outcome.response();
+        }
+        responses.put(cacheKey, new StoredResponse(requestHash, outcome.response().getStatusCode().value(), outcome.body(), completedAt));
+        return outcome.response();
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(LocalDateTime.now().minus(ttl)));
+        if (purged > 0) {
+            logger.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    // Stores the response in the action's transaction; throwing rolls the action back with it
+    private String complete(Long userId, String key, Timestamp claimedAt, ResponseEntity<?> response, LocalDateTime completedAt) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(response.getBody());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response for " + HEADER + " " + key, e);
+        }
+        if (jdbcTemplate.update(COMPLETE_SQL, response.getStatusCode().value(), body, Timestamp.valueOf(completedAt),
+                userId, key, claimedAt) == 0) {
+            // Taken over by a retry after in-progress-timeout: that retry places the order instead
+            throw new ConflictException("A request with this " + HEADER + " is already being processed");
+        }
+        return body;
+    }
+
+    // Null when this call now owns the key, otherwise what the owning call stored so far
+    private StoredResponse claim(Long userId, String key, String requestHash, Timestamp claimedAt) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                jdbcTemplate.update(CLAIM_SQL, userId, key, requestHash, claimedAt);
+                return null;
+            } catch (DuplicateKeyException e) {
+                List<StoredResponse> rows = jdbcTemplate.query(SELECT_SQL, (row, i) -> new StoredResponse(
+                    row.getString(1), (Integer) row.getObject(2), row.getString(3), row.getTimestamp(4).toLocalDateTime()),
+                    userId, key);
+                if (rows.isEmpty()) {
+                    continue;
+                }
+                StoredResponse stored = rows.get(0);
+                Duration lifetime = stored.status() == null ? inProgressTimeout : ttl;
+                if (stored.storedAt().plus(lifetime).isAfter(LocalDateTime.now())) {
+                    return stored;
+                }
+                // Expired, or abandoned by a node that died mid-request: whoever deletes the row it saw retries the claim
+                jdbcTemplate.update(TAKE_OVER_SQL, userId, key, Timestamp.valueOf(stored.storedAt()));
+            }
+        }
+        throw new ConflictException("A request with this " + HEADER + " is already being processed");
+    }
+
+    private ResponseEntity<?> replay(String cacheKey, StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BadRequestException(HEADER + " was already used for a different request");
+        }
+        if (stored.status() == null) {
+            throw new ConflictException("A request with this " + HEADER + " is already being processed");
+        }
+        responses.put(cacheKey, stored);
+        return ResponseEntity.status(stored.status())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(REPLAYED_HEADER, "true")
+            .body(stored.body());
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.service;
+
+import com.ecommerce.catalog.LowStockTracker;
+import com.ecommerce.dto.response.LowStockEvent;
+import com.ecommerce.dto.response.ProductResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Server-Sent Events feed of low-stock changes. A subscriber first receives a snapshot of the
+ * products currently below its threshold, then one event per product entering, moving within or
+ * leaving the low-stock range. Each subscriber has its own bounded queue drained on a small sender
+ * pool, so a slow dashboard neither holds up the transaction that changed the stock nor the other
+ * dashboards; one that falls too far behind is completed and gets a fresh snapshot on reconnect.
+ */
+@Service
+public class LowStockStreamService {
+
+    public static final String SNAPSHOT_EVENT = "snapshot";
+    public static final String CHANGE_EVENT = "low-stock";
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    @Autowired
+    private ProductService productService;
+
+    @Value("${app.catalog.low-stock.stream-timeout:30m}")
+    private Duration streamTimeout;
+
+    @Value("${app.catalog.low-stock.snapshot-limit:500}")
+    private int snapshotLimit;
+
+    @Value("${app.catalog.low-stock.stream-queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${app.catalog.low-stock.stream-sender-threads:2}")
+    private int senderThreads;
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threads = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "low-stock-sse-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(int threshold) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        AtomicReference<LowStockTracker.Listener> registered = new AtomicReference<>();
+        SseSubscription subscription = new SseSubscription(emitter, sender, queueCapacity,
+            () -> lowStockTracker.removeListener(registered.get()));
+        LowStockTracker.Listener listener = (product, previousStock, currentStock) -> {
+            boolean wasLow = previousStock != null && previousStock < threshold;
+            boolean isLow = currentStock != null && currentStock < threshold;
+            if (wasLow || isLow) {
+                LowStockEvent event = new LowStockEvent(product.getId(), product.getName(), previousStock, currentStock, isLow);
+                subscription.offer(SseEmitter.event().name(CHANGE_EVENT).data(event));
+            }
+        };
+        registered.set(listener);
+        // Registered before the snapshot is taken so no change can fall between the two
+        lowStockTracker.addListener(listener);
+
+        List<ProductResponse> snapshot = productService.getLowStockProducts(threshold, snapshotLimit);
+        subscription.offer(SseEmitter.event().name(SNAPSHOT_EVENT).data(snapshot));
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sender != null) {
+            sender.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.request.OrderRequest;
+import com.ecommerce.entity.Order;
+import com.ecommerce.exception.BadRequestException;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Optional group commit for order creation: callers enqueue their order and wait on a future
+ * while a single writer drains the queue into micro-batches of up to {@code batch-size} orders,
+ * waiting at most {@code max-wait} after the first one, and places each batch in one transaction
+ * with {@link OrderService#placeOrders}. Orders are validated one by one inside the batch, so a
+ * rejected order fails only its own caller; if the batch transaction itself fails, its orders are
+ * retried in transactions of their own. Callers wait at most {@code timeout} for the outcome.
+ */
+@Component
+public class OrderPipeline implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPipeline.class);
+
+    @Value("${app.orders.pipeline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.orders.pipeline.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.orders.pipeline.max-wait:5ms}")
+    private Duration maxWait;
+
+    @Value("${app.orders.pipeline.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.orders.pipeline.timeout:10s}")
+    private Duration timeout;
+
+    @Autowired
+    private OrderService orderService;
+
+    private record Pending(Long userId, OrderRequest request, CompletableFuture<Order> result) {}
+
+    private BlockingQueue<Pending> queue;
+    private Thread writer;
+    private volatile boolean running;
+    private DistributionSummary batchSizes;
+    private Timer commitTimer;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::run, "order-pipeline");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Order pipeline started: batches of up to {} orders, max wait {} ms", batchSize, maxWait.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        failQueued();
+    }
+
+    public CompletableFuture<Order> submit(Long userId, OrderRequest orderRequest) {
+        return enqueue(userId, orderRequest).result();
+    }
+
+    /**
+     * Blocks until the order's batch has committed, rethrowing the order's own failure. After
+     * {@code timeout} the order is withdrawn if no batch has taken it yet; otherwise its outcome is
+     * unknown to the caller, who gets a 503 either way.
+     */
+    public Order createOrder(Long userId, OrderRequest orderRequest) {
+        Pending pending = enqueue(userId, orderRequest);
+        try {
+            return pending.result().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Order pipeline failed", e.getCause());
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                throw new ServiceUnavailableException("Order pipeline is overloaded, retry shortly");
+            }
+            throw new ServiceUnavailableException("Order is still being placed; check your orders before retrying");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the order pipeline");
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        batchSizes = DistributionSummary.builder("orders.pipeline.batch.size")
+            .description("Orders committed per pipeline transaction")
+            .register(registry);
+        commitTimer = Timer.builder("orders.pipeline.commit")
+            .description("Time to place and commit one pipeline batch")
+            .register(registry);
+        Gauge.builder("orders.pipeline.queue.depth", this, pipeline -> pipeline.queue == null ? 0 : pipeline.queue.size())
+            .description("Orders waiting for the pipeline writer")
+            .register(registry);
+    }
+
+    private Pending enqueue(Long userId, OrderRequest orderRequest) {
+        Pending pending = new Pending(userId, orderRequest, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new ServiceUnavailableException("Order pipeline is full, retry shortly");
+        }
+        return pending;
+    }
+
+    private void failQueued() {
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new ServiceUnavailableException("Order pipeline is shutting down"));
+        }
+    }
+
+    private void run() {
+        try {
+            drain();
+        } finally {
+            // However the writer ends, nobody may be left waiting on it
+            running = false;
+            failQueued();
+        }
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWait.toNanos();
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    // Past the deadline, still take whatever is already queued
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                // Errors included: the writer is the only thread placing pipeline orders and must survive
+                logger.error("Order pipeline failed a batch of {}", batch.size(), e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        List<Long> userIds = new ArrayList<>(batch.size());
+        List<OrderRequest> requests = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            userIds.add(pending.userId());
+            requests.add(pending.request());
+        }
+
+        long start = System.nanoTime();
+        List<OrderService.Placement> placements;
+        try {
+            placements = orderService.placeOrders(userIds, requests);
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                logger.warn("Order batch of {} failed, placing its orders one by one: {}", batch.size(), e.getMessage());
+            }
+            for (Pending pending : batch) {
+                try {
+                    complete(pending, orderService.placeOrders(List.of(pending.userId()), List.of(pending.request())).get(0));
+                } catch (RuntimeException failure) {
+                    pending.result().completeExceptionally(failure);
+                }
+            }
+            return;
+        }
+        if (commitTimer != null) {
+            commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), placements.get(i));
+        }
+    }
+
+    private static void complete(Pending pending, OrderService.Placement placement) {
+        switch (placement.status()) {
+            case CREATED -> pending.result().complete(placement.order());
+            case INSUFFICIENT_STOCK -> pending.result().completeExceptionally(
+                new IllegalArgumentException("Insufficient stock for one or more products in the order"));
+            case PRODUCT_NOT_FOUND -> pending.result().completeExceptionally(
+                new ResourceNotFoundException("One or more products in the order were not found"));
+            case INVALID -> pending.result().completeExceptionally(
+                new BadRequestException("Order item quantities must be at least 1"));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.response.OrderResponse;
+import com.ecommerce.entity.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams the orders report to the response as NDJSON (one order with its items per line) or CSV
+ * (one line per item). Orders are read through a forward-only cursor and their items fetched one
+ * chunk of {@code app.orders.report.batch-size} orders at a time, both as scalar projections, so no
+ * entity is ever attached to the persistence context and memory stays bounded by one chunk however
+ * long the date range is.
+ */
+@Service
+public class OrderReportService {
+
+    public enum Format { CSV, NDJSON }
+
+    static final String CSV_HEADER = "order_id,user_id,order_status,total_amount,shipping_address,created_at,updated_at," +
+        "product_id,product_name,quantity,price";
+
+    private static final String ORDERS_QUERY =
+        "SELECT o.id, o.user.id, o.orderStatus, o.totalAmount, o.shippingAddress, o.createdAt, o.updatedAt " +
+        "FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate ORDER BY o.createdAt, o.id";
+    private static final String ITEMS_QUERY =
+        "SELECT oi.order.id, p.id, p.name, oi.quantity, oi.price FROM OrderItem oi JOIN oi.product p " +
+        "WHERE oi.order.id IN :orderIds ORDER BY oi.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.orders.report.batch-size:500}")
+    private int batchSize;
+
+    // Returns the number of orders written
+    @Transactional(readOnly = true)
+    public long export(LocalDateTime startDate, LocalDateTime endDate, Format format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long written = 0;
+        Session session = entityManager.unwrap(Session.class);
+        try (ScrollableResults<Object[]> orders = session.createSelectionQuery(ORDERS_QUERY, Object[].class)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .setFetchSize(batchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            List<Object[]> chunk = new ArrayList<>(batchSize);
+            while (orders.next()) {
+                chunk.add(orders.get());
+                if (chunk.size() == batchSize) {
+                    written += write(session, chunk, format, writer);
+                }
+            }
+            written += write(session, chunk, format, writer);
+        }
+        writer.flush();
+        return written;
+    }
+
+    private int write(Session session, List<Object[]> chunk, Format format, Writer writer) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<Long> orderIds = new ArrayList<>(chunk.size());
+        chunk.forEach(order -> orderIds.add((Long) order[0]));
+        Map<Long, List<OrderResponse.Item>> items = new HashMap<>();
+        for (Object[] item : session.createSelectionQuery(ITEMS_QUERY, Object[].class).setParameter("orderIds", orderIds).list()) {
+            items.computeIfAbsent((Long) item[0], id -> new ArrayList<>())
+                .add(new OrderResponse.Item((Long) item[1], (String) item[2], (Integer) item[3], (BigDecimal) item[4]));
+        }
+
+        for (Object[] row : chunk) {
+            OrderResponse order = new OrderResponse((Long) row[0], (Long) row[1], (OrderStatus) row[2], (BigDecimal) row[3],
+                (String) row[4], items.getOrDefault((Long) row[0], List.of()), (LocalDateTime) row[5], (LocalDateTime) row[6]);
+            if (format == Format.CSV) {
+                writeCsv(order, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(order));
+                writer.write('\n');
+            }
+        }
+        // Hand each chunk to the client as it is done rather than holding it in the buffer
+        writer.flush();
+        int written = chunk.size();
+        chunk.clear();
+        return written;
+    }
+
+    // One line per item; an order without items still gets one line with the item columns empty
+    private static void writeCsv(OrderResponse order, Writer writer) throws IOException {
+        String orderColumns = String.join(",", String.valueOf(order.getId()), String.valueOf(order.getUserId()),
+            csv(order.getOrderStatus()), csv(order.getTotalAmount()), csv(order.getShippingAddress()),
+            csv(order.getCreatedAt()), csv(order.getUpdatedAt()));
+        if (order.getOrderItems().isEmpty()) {
+            writer.write(orderColumns + ",,,,\n");
+            return;
+        }
+        for (OrderResponse.Item item : order.getOrderItems()) {
+            writer.write(orderColumns);
+            writer.write(',');
+            writer.write(String.join(",", csv(item.getProductId()), csv(item.getProductName()),
+                csv(item.getQuantity()), csv(item.getPrice())));
+            writer.write('\n');
+        }
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
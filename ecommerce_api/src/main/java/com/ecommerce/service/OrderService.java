@@ -1,12 +1,16 @@
 package com.ecommerce.service;
 
 import com.ecommerce.dto.request.OrderRequest;
+import com.ecommerce.dto.response.OrderBatchResponse;
 import com.ecommerce.entity.*;
+import com.ecommerce.exception.BadRequestException;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.repository.OrderRepository;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -14,9 +18,16 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -34,19 +45,29 @@ public class OrderService {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.orders.batch.max-orders:500}")
+    private int maxBatchOrders;
+
+    @Transactional(readOnly = true)
     public Page<Order> getAllOrders(Pageable pageable) {
         return orderRepository.findAll(pageable);
     }
 
+    @Transactional(readOnly = true)
     public Order getOrderById(Long id) {
         return orderRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public Page<Order> getOrdersByUser(Long userId, Pageable pageable) {
         return orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
     }
 
+    @Transactional(readOnly = true)
     public Page<Order> getOrdersByStatus(OrderStatus status, Pageable pageable) {
         return orderRepository.findByOrderStatusOrderByCreatedAtDesc(status, pageable);
     }
@@ -67,10 +88,6 @@ public class OrderService {
             Product product = productRepository.findById(itemRequest.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + itemRequest.getProductId()));
 
-            if (product.getStockQuantity() < itemRequest.getQuantity()) {
-                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
-            }
-
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setProduct(product);
@@ -80,8 +97,8 @@ public class OrderService {
             orderItems.add(orderItem);
             totalAmount = totalAmount.add(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
 
-            // Update product stock
-            productService.updateStock(product.getId(), itemRequest.getQuantity());
+            // Conditional decrement; fails the order instead of overselling
+            productService.updateStock(product, itemRequest.getQuantity());
         }
 
         order.setOrderItems(orderItems);
@@ -90,34 +107,172 @@ public class OrderService {
         return orderRepository.save(order);
     }
 
+    /**
+     * Creates each order that can be fulfilled and rejects the rest; see {@link #placeOrders}.
+     */
+    public OrderBatchResponse createOrders(Long userId, List<OrderRequest> orderRequests) {
+        if (orderRequests.size() > maxBatchOrders) {
+            throw new BadRequestException("At most " + maxBatchOrders + " orders can be created per request");
+        }
+        List<Placement> placements = placeOrders(Collections.nCopies(orderRequests.size(), userId), orderRequests);
+
+        List<OrderBatchResponse.Result> results = new ArrayList<>(placements.size());
+        for (int i = 0; i < placements.size(); i++) {
+            Order order = placements.get(i).order();
+            results.add(new OrderBatchResponse.Result(i, placements.get(i).status(),
+                order == null ? null : order.getId(), order == null ? null : order.getTotalAmount()));
+        }
+        return new OrderBatchResponse(results);
+    }
+
+    // Outcome for one requested order; the order is only set when it was created
+    public record Placement(OrderBatchResponse.Status status, Order order) {}
+
+    /**
+     * Places orders, possibly for different users, in one transaction: each is checked in request
+     * order against the stock left by the ones before. Users and products are loaded in one query
+     * each, stock is taken in one batch of conditional decrements, and orders and items are
+     * inserted as JDBC batches. If a concurrent sale leaves a product short of the batch total,
+     * every order using it is rejected and the stock it took from other products is given back.
+     */
+    public List<Placement> placeOrders(List<Long> userIds, List<OrderRequest> orderRequests) {
+        Map<Long, User> users = userRepository.findAllById(new HashSet<>(userIds)).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        for (Long userId : userIds) {
+            if (!users.containsKey(userId)) {
+                throw new ResourceNotFoundException("User not found with id: " + userId);
+            }
+        }
+
+        Set<Long> productIds = new HashSet<>();
+        for (OrderRequest orderRequest : orderRequests) {
+            orderRequest.getOrderItems().forEach(item -> productIds.add(item.getProductId()));
+        }
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Map<Long, Integer> remaining = new HashMap<>();
+        products.forEach((id, product) -> remaining.put(id, product.getStockQuantity() == null ? 0 : product.getStockQuantity()));
+        OrderBatchResponse.Status[] statuses = new OrderBatchResponse.Status[orderRequests.size()];
+        List<Map<Long, Integer>> quantities = new ArrayList<>(orderRequests.size());
+        Map<Long, Integer> totals = new LinkedHashMap<>();
+        for (int i = 0; i < orderRequests.size(); i++) {
+            Map<Long, Integer> needed = new LinkedHashMap<>();
+            statuses[i] = check(orderRequests.get(i), products, remaining, needed);
+            quantities.add(needed);
+            if (statuses[i] == OrderBatchResponse.Status.CREATED) {
+                needed.forEach((id, quantity) -> {
+                    remaining.merge(id, -quantity, Integer::sum);
+                    totals.merge(id, quantity, Integer::sum);
+                });
+            }
+        }
+
+        Set<Long> insufficient = productService.updateStock(totals);
+        if (!insufficient.isEmpty()) {
+            Map<Long, Integer> giveBack = new HashMap<>();
+            for (int i = 0; i < statuses.length; i++) {
+                if (statuses[i] == OrderBatchResponse.Status.CREATED
+                        && !Collections.disjoint(quantities.get(i).keySet(), insufficient)) {
+                    statuses[i] = OrderBatchResponse.Status.INSUFFICIENT_STOCK;
+                    quantities.get(i).forEach((id, quantity) -> giveBack.merge(id, quantity, Integer::sum));
+                }
+            }
+            giveBack.keySet().removeAll(insufficient);
+            productService.restoreStock(giveBack);
+        }
+
+        List<Order> orders = new ArrayList<>();
+        List<Placement> placements = new ArrayList<>(statuses.length);
+        for (int i = 0; i < statuses.length; i++) {
+            Order order = null;
+            if (statuses[i] == OrderBatchResponse.Status.CREATED) {
+                order = newOrder(users.get(userIds.get(i)), orderRequests.get(i), products);
+                orders.add(order);
+            }
+            placements.add(new Placement(statuses[i], order));
+        }
+        orderRepository.saveAll(orders);
+        return placements;
+    }
+
+    // Sums the order's quantities per product into needed and checks them against what is left
+    private static OrderBatchResponse.Status check(OrderRequest orderRequest, Map<Long, Product> products,
+                                                   Map<Long, Integer> remaining, Map<Long, Integer> needed) {
+        for (OrderRequest.OrderItemRequest item : orderRequest.getOrderItems()) {
+            if (item.getQuantity() == null || item.getQuantity() < 1) {
+                return OrderBatchResponse.Status.INVALID;
+            }
+            if (!products.containsKey(item.getProductId())) {
+                return OrderBatchResponse.Status.PRODUCT_NOT_FOUND;
+            }
+            needed.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> entry : needed.entrySet()) {
+            if (remaining.get(entry.getKey()) < entry.getValue()) {
+                return OrderBatchResponse.Status.INSUFFICIENT_STOCK;
+            }
+        }
+        return OrderBatchResponse.Status.CREATED;
+    }
+
+    private static Order newOrder(User user, OrderRequest orderRequest, Map<Long, Product> products) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setShippingAddress(orderRequest.getShippingAddress());
+        order.setOrderStatus(OrderStatus.PENDING);
+
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderRequest.OrderItemRequest itemRequest : orderRequest.getOrderItems()) {
+            Product product = products.get(itemRequest.getProductId());
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setProduct(product);
+            orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.setPrice(product.getPrice());
+            order.getOrderItems().add(orderItem);
+            totalAmount = totalAmount.add(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
+        }
+        order.setTotalAmount(totalAmount);
+        return order;
+    }
+
     public Order updateOrderStatus(Long orderId, OrderStatus status) {
         Order order = getOrderById(orderId);
+        OrderStatus previousStatus = order.getOrderStatus();
         order.setOrderStatus(status);
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        if (previousStatus != status) {
+            statusChanged(saved, previousStatus);
+        }
+        return saved;
     }
 
     public void cancelOrder(Long orderId) {
         Order order = getOrderById(orderId);
         if (order.getOrderStatus() == OrderStatus.PENDING || order.getOrderStatus() == OrderStatus.CONFIRMED) {
+            OrderStatus previousStatus = order.getOrderStatus();
             order.setOrderStatus(OrderStatus.CANCELLED);
             
             // Restore product stock
             for (OrderItem item : order.getOrderItems()) {
-                Product product = item.getProduct();
-                product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
-                productRepository.save(product);
+                productService.restoreStock(item.getProduct(), item.getQuantity());
             }
             
             orderRepository.save(order);
+            statusChanged(order, previousStatus);
         } else {
             throw new IllegalStateException("Cannot cancel order with status: " + order.getOrderStatus());
         }
     }
 
-    public List<Order> getOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.findOrdersBetweenDates(startDate, endDate);
+    // Delivered to the status stream once the transaction commits
+    private void statusChanged(Order order, OrderStatus previousStatus) {
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), order.getUser().getId(),
+            previousStatus, order.getOrderStatus(), LocalDateTime.now()));
     }
 
+    @Transactional(readOnly = true)
     public Long getOrderCountByUser(Long userId) {
         return orderRepository.countOrdersByUserId(userId);
     }
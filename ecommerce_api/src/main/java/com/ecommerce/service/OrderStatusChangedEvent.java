@@ -0,0 +1,8 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+
+public record OrderStatusChangedEvent(Long orderId, Long userId, OrderStatus previousStatus, OrderStatus orderStatus,
+                                      LocalDateTime changedAt) {}
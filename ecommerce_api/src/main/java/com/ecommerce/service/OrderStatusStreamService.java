@@ -0,0 +1,200 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.response.OrderStatusEvent;
+import com.ecommerce.entity.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Server-Sent Events feed of order status changes across all nodes. Every transition is inserted
+ * into {@code order_status_events} in the transaction that makes it, and the auto-increment id of
+ * that row is its global sequence and SSE event id. Each node polls the table and fans new rows
+ * out to its own subscribers, so a client sees every transition whichever node committed it. A
+ * client that reconnects with {@code Last-Event-ID} (or {@code after}) is first sent what it missed
+ * from the table; if that is more than {@code buffer-size} events or has already been pruned it
+ * gets a {@code reset} event and should reload its orders once.
+ */
+@Service
+public class OrderStatusStreamService {
+
+    public static final String CHANGE_EVENT = "order-status";
+    public static final String RESET_EVENT = "reset";
+
+    static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS order_status_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, order_id BIGINT NOT NULL, " +
+        "user_id BIGINT NOT NULL, previous_status VARCHAR(20), order_status VARCHAR(20) NOT NULL, changed_at TIMESTAMP NOT NULL)";
+    private static final String INSERT_SQL =
+        "INSERT INTO order_status_events (order_id, user_id, previous_status, order_status, changed_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_AFTER_SQL =
+        "SELECT id, order_id, user_id, previous_status, order_status, changed_at FROM order_status_events " +
+        "WHERE id > ? AND id <= ? ORDER BY id LIMIT ?";
+    private static final String SELECT_RANGE_SQL = "SELECT MIN(id), MAX(id) FROM order_status_events";
+    private static final String PRUNE_SQL = "DELETE FROM order_status_events WHERE changed_at < ?";
+
+    private static final RowMapper<OrderStatusEvent> EVENT_MAPPER = (row, rowNum) -> new OrderStatusEvent(
+        row.getLong(1), row.getLong(2), row.getLong(3),
+        row.getString(4) == null ? null : OrderStatus.valueOf(row.getString(4)),
+        OrderStatus.valueOf(row.getString(5)), row.getTimestamp(6).toLocalDateTime());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.orders.status-stream.timeout:30m}")
+    private Duration streamTimeout;
+
+    @Value("${app.orders.status-stream.buffer-size:4096}")
+    private int bufferSize;
+
+    @Value("${app.orders.status-stream.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${app.orders.status-stream.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${app.orders.status-stream.gap-timeout:5s}")
+    private Duration gapTimeout;
+
+    @Value("${app.orders.status-stream.retention:24h}")
+    private Duration retention;
+
+    private final List<Consumer<OrderStatusEvent>> listeners = new CopyOnWriteArrayList<>();
+    private ExecutorService sender;
+    // Highest sequence handed to this node's subscribers; everything up to it has been seen or given up on
+    private long delivered;
+    private long gapSince;
+
+    @PostConstruct
+    public void start() {
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        delivered = range()[1];
+        AtomicInteger threads = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-status-sse-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // A null userId or status matches every order
+    public SseEmitter subscribe(Long userId, OrderStatus status, Long afterSequence) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        long skipUpTo = afterSequence == null ? Long.MIN_VALUE : afterSequence;
+        AtomicReference<Consumer<OrderStatusEvent>> registered = new AtomicReference<>();
+        SseSubscription subscription = new SseSubscription(emitter, sender, queueCapacity, () -> listeners.remove(registered.get()));
+        // A cursor from a node that has polled further than this one is simply waited for
+        Consumer<OrderStatusEvent> listener = event -> {
+            if (event.getSequence() > skipUpTo && matches(event, userId, status)) {
+                subscription.offer(SseEmitter.event().id(String.valueOf(event.getSequence())).name(CHANGE_EVENT).data(event));
+            }
+        };
+        registered.set(listener);
+        // Replay and registration happen under the polling lock so no event is missed or sent twice
+        synchronized (this) {
+            if (afterSequence != null) {
+                List<OrderStatusEvent> missed = since(afterSequence);
+                if (missed == null) {
+                    subscription.offer(SseEmitter.event().id(String.valueOf(delivered)).name(RESET_EVENT).data(delivered));
+                } else {
+                    missed.forEach(listener);
+                }
+            }
+            listeners.add(listener);
+        }
+        return emitter;
+    }
+
+    // Written in the transaction that changes the status, so the feed never shows a rolled-back transition
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent change) {
+        jdbcTemplate.update(INSERT_SQL, change.orderId(), change.userId(),
+            change.previousStatus() == null ? null : change.previousStatus().name(), change.orderStatus().name(),
+            Timestamp.valueOf(change.changedAt()));
+    }
+
+    /**
+     * Hands rows committed since the last poll, by any node, to this node's subscribers in sequence
+     * order. Ids are taken at insert but become visible at commit, so a missing id may still be on
+     * its way: polling stops there until it shows up or gap-timeout passes (a rolled-back insert
+     * leaves a permanent gap).
+     */
+    @Scheduled(fixedDelayString = "${app.orders.status-stream.poll-interval-ms:250}")
+    public synchronized void poll() {
+        List<OrderStatusEvent> events;
+        do {
+            events = jdbcTemplate.query(SELECT_AFTER_SQL, EVENT_MAPPER, delivered, Long.MAX_VALUE, bufferSize);
+            for (OrderStatusEvent event : events) {
+                if (event.getSequence() != delivered + 1) {
+                    if (gapSince == 0) {
+                        gapSince = System.nanoTime();
+                    }
+                    if (System.nanoTime() - gapSince < gapTimeout.toNanos()) {
+                        return;
+                    }
+                }
+                gapSince = 0;
+                delivered = event.getSequence();
+                listeners.forEach(listener -> listener.accept(event));
+            }
+        } while (events.size() == bufferSize);
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.status-stream.prune-interval-ms:600000}",
+               initialDelayString = "${app.orders.status-stream.prune-interval-ms:600000}")
+    public void prune() {
+        jdbcTemplate.update(PRUNE_SQL, Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sender != null) {
+            sender.shutdownNow();
+        }
+    }
+
+    // Events after the cursor up to what this node has delivered, or null when they cannot all be replayed
+    synchronized List<OrderStatusEvent> since(long afterSequence) {
+        long[] range = range();
+        if (afterSequence > range[1]) {
+            return null;
+        }
+        if (afterSequence >= delivered) {
+            return List.of();
+        }
+        // Pruned already (an empty table has pruned everything up to what was delivered)
+        if (range[0] == 0 || afterSequence < range[0] - 1) {
+            return null;
+        }
+        List<OrderStatusEvent> events = jdbcTemplate.query(SELECT_AFTER_SQL, EVENT_MAPPER, afterSequence, delivered, bufferSize + 1);
+        return events.size() > bufferSize ? null : events;
+    }
+
+    // Oldest and newest retained sequence, both 0 when the table is empty
+    private long[] range() {
+        return jdbcTemplate.queryForObject(SELECT_RANGE_SQL, (row, rowNum) -> new long[] {row.getLong(1), row.getLong(2)});
+    }
+
+    private static boolean matches(OrderStatusEvent event, Long userId, OrderStatus status) {
+        return (userId == null || userId.equals(event.getUserId()))
+            && (status == null || status == event.getOrderStatus());
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.exception.BadRequestException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque keyset cursor for product listings: the sort property, its direction and the sort key
+ * and id of the last row served, base64url encoded. Search cursors carry the key of the stored
+ * ranking and the position in it instead of a sort key.
+ */
+final class ProductCursor {
+
+    static final String SEARCH = "_search";
+    static final String POPULARITY = "_popularity";
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final Long id;
+    private final String value;
+
+    private ProductCursor(String property, Sort.Direction direction, Long id, String value) {
+        this.property = property;
+        this.direction = direction;
+        this.id = id;
+        this.value = value;
+    }
+
+    static ProductCursor after(Product product, String property, Sort.Direction direction) {
+        return new ProductCursor(property, direction, product.getId(), String.valueOf(sortKey(product, property)));
+    }
+
+    static ProductCursor afterId(Long id) {
+        return new ProductCursor("id", Sort.Direction.ASC, id, String.valueOf(id));
+    }
+
+    static ProductCursor afterSearch(Long id, String ranking, int position) {
+        return new ProductCursor(SEARCH, Sort.Direction.DESC, id, ranking + "." + position);
+    }
+
+    static ProductCursor afterPopularity(Long id, long unitsSold, Sort.Direction direction) {
+        return new ProductCursor(POPULARITY, direction, id, Long.toString(unitsSold));
+    }
+
+    static ProductCursor decode(String token, String expectedProperty, Sort.Direction expectedDirection) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":", 4);
+            ProductCursor cursor = new ProductCursor(parts[0], Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]), parts[3]);
+            cursor.parseSortKey();
+            if (!cursor.property.equals(expectedProperty) || cursor.direction != expectedDirection) {
+                throw new BadRequestException("Cursor does not match the requested sort order");
+            }
+            return cursor;
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + token);
+        }
+    }
+
+    String encode() {
+        String raw = property + ":" + direction.name() + ":" + id + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    ScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(property, parseSortKey());
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+
+    Long getId() { return id; }
+
+    String getRanking() { return value.substring(0, value.lastIndexOf('.')); }
+
+    int getPosition() { return (Integer) parseSortKey(); }
+
+    long getUnitsSold() { return (Long) parseSortKey(); }
+
+    private Object parseSortKey() {
+        return switch (property) {
+            case SEARCH -> {
+                int position = Integer.parseInt(value.substring(value.lastIndexOf('.') + 1));
+                if (position < 0 || value.lastIndexOf('.') < 1) {
+                    throw new BadRequestException("Invalid search cursor");
+                }
+                yield position;
+            }
+            case POPULARITY -> Long.valueOf(value);
+            case "id" -> Long.valueOf(value);
+            case "price" -> new BigDecimal(value);
+            case "createdAt" -> LocalDateTime.parse(value);
+            case "name" -> value;
+            default -> throw new BadRequestException("Unsupported cursor sort property: " + property);
+        };
+    }
+
+    private static Object sortKey(Product product, String property) {
+        return switch (property) {
+            case "id" -> product.getId();
+            case "price" -> product.getPrice();
+            case "createdAt" -> product.getCreatedAt();
+            case "name" -> product.getName();
+            default -> throw new BadRequestException("Unsupported cursor sort property: " + property);
+        };
+    }
+}
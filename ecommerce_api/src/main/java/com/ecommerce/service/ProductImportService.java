@@ -0,0 +1,254 @@
+package com.ecommerce.service;
+
+import com.ecommerce.catalog.CatalogIndexer;
+import com.ecommerce.dto.request.ProductRequest;
+import com.ecommerce.dto.response.ProductImportResponse;
+import com.ecommerce.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams CSV or NDJSON product rows into batched JDBC inserts. Rows are validated one at a time and
+ * written in chunks of {@code app.catalog.import.batch-size}, each in its own transaction, so memory
+ * stays bounded by one chunk regardless of the size of the upload.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO products (name, description, price, stock_quantity, category, brand, image_url, is_active, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final Set<String> CSV_COLUMNS =
+        Set.of("name", "description", "price", "stockquantity", "category", "brand", "imageurl");
+
+    public enum Format { CSV, NDJSON }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogIndexer catalogIndexer;
+
+    @Value("${app.catalog.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.catalog.import.max-errors:1000}")
+    private int maxErrors;
+
+    public ProductImportResponse importProducts(InputStream input, Format format) throws IOException {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Row> chunk = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && header == null) {
+                    header = parseHeader(line);
+                    continue;
+                }
+                run.received++;
+                ProductRequest request;
+                try {
+                    request = format == Format.CSV ? fromCsv(header, line) : objectMapper.readValue(line, ProductRequest.class);
+                } catch (JsonProcessingException e) {
+                    run.fail(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    run.fail(lineNumber, e.getMessage());
+                    continue;
+                }
+                Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    run.fail(lineNumber, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                    continue;
+                }
+                chunk.add(new Row(lineNumber, request));
+                if (chunk.size() == batchSize) {
+                    flush(chunk, run, transaction);
+                }
+            }
+            flush(chunk, run, transaction);
+        }
+
+        if (run.imported > 0) {
+            // Pull the new rows into the catalog indexes now rather than on the next delta scan
+            catalogIndexer.refreshFromRepository();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Imported {} of {} product rows ({} failed) in {} ms", run.imported, run.received, run.failed, elapsedMs);
+        return new ProductImportResponse(run.received, run.imported, run.failed, elapsedMs, run.errors, run.failed > run.errors.size());
+    }
+
+    private void flush(List<Row> chunk, ImportRun run, TransactionTemplate transaction) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transaction.executeWithoutResult(status -> insert(chunk));
+            run.imported += chunk.size();
+        } catch (DataAccessException e) {
+            // Replay the chunk row by row so a single bad row only fails itself
+            for (Row row : chunk) {
+                try {
+                    transaction.executeWithoutResult(status -> insert(List.of(row)));
+                    run.imported++;
+                } catch (DataAccessException rowError) {
+                    run.fail(row.line, rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private void insert(List<Row> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (statement, row) -> {
+            ProductRequest request = row.request;
+            statement.setString(1, request.getName());
+            statement.setString(2, request.getDescription());
+            statement.setBigDecimal(3, request.getPrice());
+            statement.setInt(4, request.getStockQuantity());
+            statement.setString(5, request.getCategory());
+            statement.setString(6, request.getBrand());
+            statement.setString(7, request.getImageUrl());
+            statement.setBoolean(8, true);
+            statement.setTimestamp(9, now);
+            statement.setTimestamp(10, now);
+        });
+    }
+
+    private String[] parseHeader(String line) {
+        List<String> columns = splitCsv(line);
+        String[] header = new String[columns.size()];
+        for (int i = 0; i < header.length; i++) {
+            String column = columns.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "");
+            if (!CSV_COLUMNS.contains(column)) {
+                throw new BadRequestException("Unknown CSV column: " + columns.get(i));
+            }
+            header[i] = column;
+        }
+        return header;
+    }
+
+    private ProductRequest fromCsv(String[] header, String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() != header.length) {
+            throw new IllegalArgumentException("Expected " + header.length + " columns but found " + values.size());
+        }
+        ProductRequest request = new ProductRequest();
+        for (int i = 0; i < header.length; i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            try {
+                switch (header[i]) {
+                    case "name" -> request.setName(value);
+                    case "description" -> request.setDescription(value);
+                    case "price" -> request.setPrice(value == null ? null : new BigDecimal(value.trim()));
+                    case "stockquantity" -> request.setStockQuantity(value == null ? null : Integer.valueOf(value.trim()));
+                    case "category" -> request.setCategory(value);
+                    case "brand" -> request.setBrand(value);
+                    case "imageurl" -> request.setImageUrl(value);
+                    default -> throw new IllegalStateException(header[i]);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number for " + header[i] + ": " + value);
+            }
+        }
+        return request;
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record Row(long line, ProductRequest request) {}
+
+    private class ImportRun {
+        long received;
+        long imported;
+        long failed;
+        final List<ProductImportResponse.RowError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ProductImportResponse.RowError(line, message));
+            }
+        }
+    }
+}
@@ -1,44 +1,324 @@
 package com.ecommerce.service;
 
+import com.ecommerce.catalog.FuzzyTermIndex;
+import com.ecommerce.catalog.IdPage;
+import com.ecommerce.catalog.LowStockTracker;
+import com.ecommerce.catalog.PopularityRanking;
+import com.ecommerce.catalog.ProductCache;
+import com.ecommerce.catalog.ProductChangedEvent;
+import com.ecommerce.catalog.ProductFilterIndex;
+import com.ecommerce.catalog.ProductPopularity;
+import com.ecommerce.catalog.ProductResponseCache;
+import com.ecommerce.catalog.ProductSearchIndex;
+import com.ecommerce.catalog.ProductSuggestIndex;
+import com.ecommerce.catalog.SearchRankings;
 import com.ecommerce.dto.request.ProductRequest;
+import com.ecommerce.dto.request.StockAdjustmentRequest.StockAdjustment;
+import com.ecommerce.dto.response.CursorPage;
+import com.ecommerce.dto.response.ProductBatchResponse;
+import com.ecommerce.dto.response.ProductFacetsResponse;
+import com.ecommerce.dto.response.ProductResponse;
+import com.ecommerce.dto.response.ProductSuggestion;
+import com.ecommerce.dto.response.StockAdjustmentResponse;
 import com.ecommerce.entity.Product;
+import com.ecommerce.exception.BadRequestException;
+import com.ecommerce.exception.CatalogNotReadyException;
 import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.inventory.InventoryLedger;
 import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.ProductSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProductService {
 
+    // new stock = base + factor * stock: (delta, 1) for relative changes, (quantity, 0) for absolute levels
+    private static final String ADJUST_STOCK_SQL =
+        "UPDATE products SET stock_quantity = ? + ? * stock_quantity, updated_at = ? " +
+        "WHERE id = ? AND ? + ? * stock_quantity >= 0";
+
+    private static final String DECREMENT_STOCK_SQL =
+        "UPDATE products SET stock_quantity = stock_quantity - ?, updated_at = ? WHERE id = ? AND stock_quantity >= ?";
+
+    private static final String INCREMENT_STOCK_SQL =
+        "UPDATE products SET stock_quantity = stock_quantity + ?, updated_at = ? WHERE id = ?";
+
     @Autowired
     private ProductRepository productRepository;
 
-    public Page<Product> getAllProducts(Pageable pageable) {
-        return productRepository.findByIsActiveTrue(pageable);
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductResponseCache responseCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private SearchRankings searchRankings;
+
+    @Autowired
+    private ProductFilterIndex productFilterIndex;
+
+    @Autowired
+    private FuzzyTermIndex fuzzyTermIndex;
+
+    @Autowired
+    private PopularityRanking popularityRanking;
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Autowired
+    private ProductPopularity productPopularity;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.catalog.facets.price-buckets:50,100,250,500,1000}")
+    private List<BigDecimal> defaultPriceBuckets;
+
+    @Value("${app.catalog.batch.max-ids:100}")
+    private int maxBatchIds;
+
+    @Value("${app.catalog.search.fuzzy-min-hits:3}")
+    private int fuzzyMinHits;
+
+    @Value("${app.catalog.search.fuzzy-budget:15ms}")
+    private Duration fuzzyBudget;
+
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getAllProducts(Pageable pageable) {
+        return onPrimary(() -> productRepository.findByIsActiveTrue(pageable));
     }
 
-    public Product getProductById(Long id) {
-        return productRepository.findById(id)
+    @Transactional(readOnly = true)
+    public ProductResponse getProductById(Long id) {
+        return productCache.get(id, this::loadFromPrimary)
+            .map(ProductResponse::from)
             .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
     }
 
-    public Page<Product> getProductsByCategory(String category, Pageable pageable) {
-        return productRepository.findByCategoryAndIsActiveTrue(category, pageable);
+    /**
+     * Products for the given ids in request order, one item per requested id. Cache hits are served
+     * from memory; all misses are loaded with a single IN query.
+     */
+    @Transactional(readOnly = true)
+    public ProductBatchResponse getProductsByIds(List<Long> ids) {
+        if (ids.size() > maxBatchIds) {
+            throw new BadRequestException("At most " + maxBatchIds + " ids can be requested at once");
+        }
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Product> found = productCache.getAll(distinct, this::loadAllFromPrimary).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductBatchResponse.Item> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = found.get(id);
+            items.add(product == null
+                ? new ProductBatchResponse.Item(id, ProductBatchResponse.Status.NOT_FOUND, null)
+                : new ProductBatchResponse.Item(id, ProductBatchResponse.Status.FOUND, ProductResponse.from(product)));
+        }
+        return new ProductBatchResponse(items);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getProductsByCategory(String category, Pageable pageable) {
+        return onPrimary(() -> productRepository.findByCategoryAndIsActiveTrue(category, pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> searchProducts(String keyword, Pageable pageable) {
+        if (!productSearchIndex.isReady()) {
+            return onPrimary(() -> productRepository.findByNameContainingIgnoreCaseAndIsActiveTrue(keyword, pageable));
+        }
+        IdPage hits = productSearchIndex.search(keyword, (int) pageable.getOffset(), pageable.getPageSize());
+        if (hits.getTotal() < fuzzyMinHits) {
+            String corrected = correctKeyword(keyword);
+            if (corrected != null) {
+                IdPage fuzzyHits = productSearchIndex.search(corrected, (int) pageable.getOffset(), pageable.getPageSize());
+                if (fuzzyHits.getTotal() > hits.getTotal()) {
+                    hits = fuzzyHits;
+                }
+            }
+        }
+        return new PageImpl<>(hydrate(hits.getIds()), pageable, hits.getTotal());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getProductsWithFilters(String category, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        if (!productFilterIndex.isReady()) {
+            return onPrimary(() -> productRepository.findProductsWithFilters(category, minPrice, maxPrice, pageable));
+        }
+        IdPage matches = productFilterIndex.filter(category, minPrice, maxPrice, (int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(hydrate(matches.getIds()), pageable, matches.getTotal());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getProductsByPopularity(Sort.Direction direction, Pageable pageable) {
+        if (!popularityRanking.isReady()) {
+            throw new CatalogNotReadyException("Catalog index is still loading");
+        }
+        IdPage ranked = popularityRanking.page(direction == Sort.Direction.DESC, (int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(hydrate(ranked.getIds()), pageable, ranked.getTotal());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> getProductsAfter(ProductSort sort, Sort.Direction direction, String after, int size) {
+        if (sort == ProductSort.POPULARITY) {
+            return getProductsByPopularityAfter(direction, after, size);
+        }
+        ScrollPosition position = scrollPosition(after, sort.getProperty(), direction);
+        return onPrimary(() -> toCursorPage(productRepository.findByIsActiveTrue(position, sort.toSort(direction), Limit.of(size)),
+            sort.getProperty(), direction, size));
     }
 
-    public Page<Product> searchProducts(String keyword, Pageable pageable) {
-        return productRepository.findByNameContainingIgnoreCaseAndIsActiveTrue(keyword, pageable);
+    private CursorPage<ProductResponse> getProductsByPopularityAfter(Sort.Direction direction, String after, int size) {
+        if (!popularityRanking.isReady()) {
+            throw new CatalogNotReadyException("Catalog index is still loading");
+        }
+        PopularityRanking.RankedProduct last = null;
+        if (after != null && !after.isEmpty()) {
+            ProductCursor cursor = ProductCursor.decode(after, ProductCursor.POPULARITY, direction);
+            last = new PopularityRanking.RankedProduct(cursor.getId(), cursor.getUnitsSold());
+        }
+        List<PopularityRanking.RankedProduct> ranked = popularityRanking.after(direction == Sort.Direction.DESC, last, size + 1);
+        boolean hasNext = ranked.size() > size;
+        List<PopularityRanking.RankedProduct> pageRanked = hasNext ? ranked.subList(0, size) : ranked;
+        List<ProductResponse> products = hydrate(pageRanked.stream().map(PopularityRanking.RankedProduct::id).collect(Collectors.toList()));
+        String nextCursor = null;
+        if (hasNext) {
+            PopularityRanking.RankedProduct lastRanked = pageRanked.get(pageRanked.size() - 1);
+            nextCursor = ProductCursor.afterPopularity(lastRanked.id(), lastRanked.unitsSold(), direction).encode();
+        }
+        return new CursorPage<>(products, size, nextCursor);
     }
 
-    public Page<Product> getProductsWithFilters(String category, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        return productRepository.findProductsWithFilters(category, minPrice, maxPrice, pageable);
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> getProductsByCategoryAfter(String category, String after, int size) {
+        ScrollPosition position = scrollPosition(after, "id", Sort.Direction.ASC);
+        return onPrimary(() -> toCursorPage(productRepository.findByCategoryAndIsActiveTrue(
+            category, position, keysetSort("id", Sort.Direction.ASC), Limit.of(size)), "id", Sort.Direction.ASC, size));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> searchProductsAfter(String keyword, String after, int size) {
+        if (!productSearchIndex.isReady()) {
+            ScrollPosition position = scrollPosition(after, "id", Sort.Direction.ASC);
+            return onPrimary(() -> toCursorPage(productRepository.findByNameContainingIgnoreCaseAndIsActiveTrue(
+                keyword, position, keysetSort("id", Sort.Direction.ASC), Limit.of(size)), "id", Sort.Direction.ASC, size));
+        }
+        // Ranked once per search; later pages are cut from the stored ranking
+        String rankingKey;
+        int position = 0;
+        SearchRankings.Ranking ranking = null;
+        if (after == null || after.isEmpty()) {
+            rankingKey = searchRankings.newKey();
+        } else {
+            ProductCursor cursor = ProductCursor.decode(after, ProductCursor.SEARCH, Sort.Direction.DESC);
+            rankingKey = cursor.getRanking();
+            position = cursor.getPosition();
+            ranking = searchRankings.get(rankingKey);
+            if (ranking != null && !ranking.query().equals(keyword)) {
+                throw new BadRequestException("Cursor does not match the search keyword");
+            }
+        }
+        if (ranking == null) {
+            // A new search, or its ranking expired or was cut on another node: rank and continue at the same position
+            ranking = searchRankings.put(rankingKey, keyword, searchRanking(keyword));
+        }
+        List<Long> ids = ranking.slice(position, size + 1);
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+        List<ProductResponse> products = hydrate(pageIds);
+        String nextCursor = hasNext ? ProductCursor.afterSearch(pageIds.get(size - 1), rankingKey, position + size).encode() : null;
+        return new CursorPage<>(products, size, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> getProductsWithFiltersAfter(String category, BigDecimal minPrice, BigDecimal maxPrice, String after, int size) {
+        if (productFilterIndex.isReady()) {
+            Long afterId = (after == null || after.isEmpty()) ? null : ProductCursor.decode(after, "id", Sort.Direction.ASC).getId();
+            List<Long> ids = productFilterIndex.filterAfter(category, minPrice, maxPrice, afterId, size + 1);
+            boolean hasNext = ids.size() > size;
+            List<ProductResponse> products = hydrate(hasNext ? ids.subList(0, size) : ids);
+            String nextCursor = hasNext ? ProductCursor.afterId(ids.get(size - 1)).encode() : null;
+            return new CursorPage<>(products, size, nextCursor);
+        }
+        ScrollPosition position = scrollPosition(after, "id", Sort.Direction.ASC);
+        return onPrimary(() -> toCursorPage(productRepository.findBy(
+            ProductSpecifications.activeWithFilters(category, minPrice, maxPrice),
+            query -> query.sortBy(keysetSort("id", Sort.Direction.ASC)).limit(size).scroll(position)), "id", Sort.Direction.ASC, size));
+    }
+
+    // Index-only, like suggest
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductFacetsResponse getFacets(String keyword, String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                           List<BigDecimal> priceBuckets) {
+        boolean hasKeyword = keyword != null && !keyword.isBlank();
+        if (!productFilterIndex.isReady() || (hasKeyword && !productSearchIndex.isReady())) {
+            throw new CatalogNotReadyException("Catalog index is still loading");
+        }
+        List<Long> searchHits = hasKeyword ? searchRanking(keyword) : null;
+        List<BigDecimal> bounds = (priceBuckets == null || priceBuckets.isEmpty()) ? defaultPriceBuckets
+            : priceBuckets.stream().distinct().sorted().collect(Collectors.toList());
+        return productFilterIndex.facets(category, minPrice, maxPrice, searchHits, bounds);
+    }
+
+    // Served from the in-memory index alone: no transaction, so a keystroke never checks out a connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        if (!productSuggestIndex.isReady()) {
+            throw new CatalogNotReadyException("Catalog index is still loading");
+        }
+        return productSuggestIndex.suggest(prefix, limit);
     }
 
     public Product createProduct(ProductRequest productRequest) {
@@ -52,12 +332,14 @@ public class ProductService {
         product.setImageUrl(productRequest.getImageUrl());
         product.setIsActive(true);
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productChanged(saved);
+        return saved;
     }
 
     public Product updateProduct(Long id, ProductRequest productRequest) {
-        Product product = getProductById(id);
-        
+        Product product = loadProduct(id);
+
         product.setName(productRequest.getName());
         product.setDescription(productRequest.getDescription());
         product.setPrice(productRequest.getPrice());
@@ -66,25 +348,310 @@ public class ProductService {
         product.setBrand(productRequest.getBrand());
         product.setImageUrl(productRequest.getImageUrl());
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productChanged(saved);
+        return saved;
     }
 
     public void deleteProduct(Long id) {
-        Product product = getProductById(id);
+        Product product = loadProduct(id);
         product.setIsActive(false);
-        productRepository.save(product);
+        productChanged(productRepository.save(product));
     }
 
-    public List<Product> getLowStockProducts(Integer threshold) {
-        return productRepository.findByStockQuantityLessThan(threshold);
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getLowStockProducts(Integer threshold, int limit) {
+        if (!lowStockTracker.isReady()) {
+            return productRepository.findByIsActiveTrueAndStockQuantityLessThanOrderByStockQuantityAscIdAsc(
+                threshold, PageRequest.of(0, limit));
+        }
+        return hydrate(lowStockTracker.below(threshold, limit));
     }
 
-    public void updateStock(Long productId, Integer quantity) {
-        Product product = getProductById(productId);
-        if (product.getStockQuantity() < quantity) {
+    /**
+     * Takes stock with one conditional UPDATE whose row count decides, so concurrent checkouts
+     * cannot oversell and nothing is locked or re-read. The caller's copy says nothing about the
+     * level other sales left, so the catalog reloads the row once the transaction commits. With the
+     * inventory ledger enabled the ledger takes the stock instead and writes it behind.
+     */
+    public void updateStock(Product product, Integer quantity) {
+        if (inventoryLedger.isEnabled()) {
+            if (!inventoryLedger.reserve(product.getId(), quantity)) {
+                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
+            }
+            productPopularity.record(product.getId(), quantity);
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (jdbcTemplate.update(DECREMENT_STOCK_SQL, quantity, now, product.getId(), quantity) == 0) {
             throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
         }
-        product.setStockQuantity(product.getStockQuantity() - quantity);
-        productRepository.save(product);
+        stockChanged(product.getId());
+        productPopularity.record(product.getId(), quantity);
+    }
+
+    /**
+     * Takes stock for several products at once: the same conditional decrement as above, sent as
+     * one JDBC batch. Quantities are keyed by product id; the ids that did not have enough stock
+     * are returned and left unchanged.
+     */
+    public Set<Long> updateStock(Map<Long, Integer> quantities) {
+        Set<Long> insufficient = new LinkedHashSet<>();
+        if (inventoryLedger.isEnabled()) {
+            quantities.forEach((id, quantity) -> {
+                if (inventoryLedger.reserve(id, quantity)) {
+                    productPopularity.record(id, quantity);
+                } else {
+                    insufficient.add(id);
+                }
+            });
+            return insufficient;
+        }
+        if (quantities.isEmpty()) {
+            return insufficient;
+        }
+
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantities.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] counts = Arrays.stream(jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, entries, entries.size(), (statement, entry) -> {
+            statement.setInt(1, entry.getValue());
+            statement.setTimestamp(2, now);
+            statement.setLong(3, entry.getKey());
+            statement.setInt(4, entry.getValue());
+        })).flatMapToInt(Arrays::stream).toArray();
+
+        for (int i = 0; i < entries.size(); i++) {
+            Long id = entries.get(i).getKey();
+            int quantity = entries.get(i).getValue();
+            if (counts[i] == 0) {
+                insufficient.add(id);
+                continue;
+            }
+            stockChanged(id);
+            productPopularity.record(id, quantity);
+        }
+        return insufficient;
+    }
+
+    public void restoreStock(Product product, Integer quantity) {
+        if (inventoryLedger.isEnabled()) {
+            inventoryLedger.release(product.getId(), quantity);
+            productPopularity.record(product.getId(), -quantity);
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (jdbcTemplate.update(INCREMENT_STOCK_SQL, quantity, now, product.getId()) == 0) {
+            throw new ResourceNotFoundException("Product not found with id: " + product.getId());
+        }
+        stockChanged(product.getId());
+        productPopularity.record(product.getId(), -quantity);
+    }
+
+    /**
+     * Gives back stock taken by {@link #updateStock(Map)} earlier in the same transaction, as one
+     * batch of increments.
+     */
+    public void restoreStock(Map<Long, Integer> quantities) {
+        if (inventoryLedger.isEnabled()) {
+            quantities.forEach((id, quantity) -> {
+                inventoryLedger.release(id, quantity);
+                productPopularity.record(id, -quantity);
+            });
+            return;
+        }
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantities.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INCREMENT_STOCK_SQL, entries, entries.size(), (statement, entry) -> {
+            statement.setInt(1, entry.getValue());
+            statement.setTimestamp(2, now);
+            statement.setLong(3, entry.getKey());
+        });
+        for (Map.Entry<Long, Integer> entry : entries) {
+            stockChanged(entry.getKey());
+            productPopularity.record(entry.getKey(), -entry.getValue());
+        }
+    }
+
+    /**
+     * Applies all adjustments as one JDBC batch of conditional UPDATEs in request order, inside the
+     * caller's transaction. Adjustments that would drive stock below zero are skipped and reported.
+     * Reported stock levels are the values after the whole batch.
+     */
+    public StockAdjustmentResponse adjustStock(List<StockAdjustment> adjustments) {
+        if (inventoryLedger.isEnabled()) {
+            return adjustStockInLedger(adjustments);
+        }
+        List<StockAdjustment> valid = new ArrayList<>(adjustments.size());
+        for (StockAdjustment adjustment : adjustments) {
+            if (isValid(adjustment)) {
+                valid.add(adjustment);
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] counts = valid.isEmpty() ? new int[0] : Arrays.stream(jdbcTemplate.batchUpdate(ADJUST_STOCK_SQL, valid, valid.size(), (statement, adjustment) -> {
+            boolean absolute = adjustment.getQuantity() != null;
+            int base = absolute ? adjustment.getQuantity() : adjustment.getDelta();
+            int factor = absolute ? 0 : 1;
+            statement.setInt(1, base);
+            statement.setInt(2, factor);
+            statement.setTimestamp(3, now);
+            statement.setLong(4, adjustment.getProductId());
+            statement.setInt(5, base);
+            statement.setInt(6, factor);
+        })).flatMapToInt(Arrays::stream).toArray();
+
+        Set<Long> ids = new LinkedHashSet<>();
+        valid.forEach(adjustment -> ids.add(adjustment.getProductId()));
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<StockAdjustmentResponse.Result> results = new ArrayList<>(adjustments.size());
+        Set<Long> changed = new LinkedHashSet<>();
+        int next = 0;
+        for (StockAdjustment adjustment : adjustments) {
+            Long id = adjustment.getProductId();
+            if (!isValid(adjustment)) {
+                results.add(new StockAdjustmentResponse.Result(id, StockAdjustmentResponse.Status.INVALID, null));
+                continue;
+            }
+            int count = counts[next++];
+            Product product = products.get(id);
+            if (product == null) {
+                results.add(new StockAdjustmentResponse.Result(id, StockAdjustmentResponse.Status.NOT_FOUND, null));
+            } else if (count == 0) {
+                results.add(new StockAdjustmentResponse.Result(id, StockAdjustmentResponse.Status.INSUFFICIENT_STOCK, product.getStockQuantity()));
+            } else {
+                results.add(new StockAdjustmentResponse.Result(id, StockAdjustmentResponse.Status.UPDATED, product.getStockQuantity()));
+                changed.add(id);
+            }
+        }
+        for (Long id : changed) {
+            productChanged(products.get(id));
+        }
+        return new StockAdjustmentResponse(results);
+    }
+
+    // The ledger owns stock while enabled: adjustments go through its cells and reach the table with its next flush
+    private StockAdjustmentResponse adjustStockInLedger(List<StockAdjustment> adjustments) {
+        List<StockAdjustmentResponse.Result> results = new ArrayList<>(adjustments.size());
+        for (StockAdjustment adjustment : adjustments) {
+            Long id = adjustment.getProductId();
+            if (!isValid(adjustment)) {
+                results.add(new StockAdjustmentResponse.Result(id, StockAdjustmentResponse.Status.INVALID, null));
+                continue;
+            }
+            InventoryLedger.Adjustment result = inventoryLedger.adjust(id, adjustment.getDelta(), adjustment.getQuantity());
+            if (result == null) {
+                results.add(new StockAdjustmentResponse.Result(id, StockAdjustmentResponse.Status.NOT_FOUND, null));
+            } else {
+                results.add(new StockAdjustmentResponse.Result(id, result.applied()
+                    ? StockAdjustmentResponse.Status.UPDATED : StockAdjustmentResponse.Status.INSUFFICIENT_STOCK, result.stockQuantity()));
+            }
+        }
+        return new StockAdjustmentResponse(results);
+    }
+
+    private static boolean isValid(StockAdjustment adjustment) {
+        if (adjustment.getProductId() == null || (adjustment.getDelta() == null) == (adjustment.getQuantity() == null)) {
+            return false;
+        }
+        return adjustment.getQuantity() == null || adjustment.getQuantity() >= 0;
+    }
+
+    private ScrollPosition scrollPosition(String after, String sortBy, Sort.Direction direction) {
+        if (after == null || after.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        return ProductCursor.decode(after, sortBy, direction).toScrollPosition();
+    }
+
+    private Sort keysetSort(String sortBy, Sort.Direction direction) {
+        Sort sort = Sort.by(direction, sortBy);
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    private CursorPage<ProductResponse> toCursorPage(Window<Product> window, String sortBy, Sort.Direction direction, int size) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = ProductCursor.after(window.getContent().get(window.size() - 1), sortBy, direction).encode();
+        }
+        return new CursorPage<>(window.map(ProductResponse::from).getContent(), size, nextCursor);
+    }
+
+    private List<ProductResponse> hydrate(List<Long> ids) {
+        return productCache.getAll(ids, this::loadAllFromPrimary).stream()
+            .map(ProductResponse::from)
+            .collect(Collectors.toList());
+    }
+
+    /*
+     * Cache misses and listing pages are loaded from the primary even inside read-only transactions:
+     * whatever is loaded here is cached, or sent under the ETag of the current catalog version, until
+     * the catalog changes again, so a replica row from before a recent write would stay stale (and
+     * answer 304s) long after the lag is gone.
+     */
+    private Optional<Product> loadFromPrimary(Long id) {
+        return onPrimary(() -> productRepository.findById(id));
+    }
+
+    private Iterable<Product> loadAllFromPrimary(Collection<Long> ids) {
+        return onPrimary(() -> productRepository.findAllById(ids));
+    }
+
+    private <T> T onPrimary(Supplier<T> load) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return load.get();
+        }
+        TransactionTemplate primary = new TransactionTemplate(transactionManager);
+        primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return primary.execute(status -> load.get());
+    }
+
+    // All hits for the keyword, or for its typo correction when that finds more, ranked once each
+    private List<Long> searchRanking(String keyword) {
+        List<Long> hits = productSearchIndex.matchingIds(keyword);
+        if (hits.size() >= fuzzyMinHits) {
+            return hits;
+        }
+        String corrected = correctKeyword(keyword);
+        if (corrected != null) {
+            List<Long> correctedHits = productSearchIndex.matchingIds(corrected);
+            if (correctedHits.size() > hits.size()) {
+                return correctedHits;
+            }
+        }
+        return hits;
+    }
+
+    // Typo fallback runs against the in-memory vocabulary only, bounded by the fuzzy budget
+    private String correctKeyword(String keyword) {
+        if (!fuzzyTermIndex.isReady()) {
+            return null;
+        }
+        return fuzzyTermIndex.correct(keyword, System.nanoTime() + fuzzyBudget.toNanos());
+    }
+
+    private void productChanged(Product product) {
+        productCache.invalidate(product.getId());
+        responseCache.evict(product.getId());
+        eventPublisher.publishEvent(new ProductChangedEvent(product));
+    }
+
+    // Written by a blind UPDATE, so listeners reload the committed row instead of trusting a copy
+    private void stockChanged(Long productId) {
+        productCache.invalidate(productId);
+        responseCache.evict(productId);
+        eventPublisher.publishEvent(ProductChangedEvent.reload(productId));
+    }
+
+    // Mutations work on the managed entity, never on the cached copy
+    private Product loadProduct(Long id) {
+        return productRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
     }
 }
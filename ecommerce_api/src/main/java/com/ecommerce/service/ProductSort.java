@@ -0,0 +1,59 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Sort orders supported by product listings. Name, price and newest are served by the
+ * (is_active, column, id) indexes on products; popularity is served from the in-memory ranking.
+ */
+public enum ProductSort {
+
+    NAME("name", "name", Sort.Direction.ASC),
+    PRICE("price", "price", Sort.Direction.ASC),
+    NEWEST("newest", "createdAt", Sort.Direction.DESC),
+    POPULARITY("popularity", null, Sort.Direction.DESC);
+
+    private final String key;
+    private final String property;
+    private final Sort.Direction defaultDirection;
+
+    ProductSort(String key, String property, Sort.Direction defaultDirection) {
+        this.key = key;
+        this.property = property;
+        this.defaultDirection = defaultDirection;
+    }
+
+    public static ProductSort from(String key) {
+        for (ProductSort sort : values()) {
+            if (sort.key.equalsIgnoreCase(key)) {
+                return sort;
+            }
+        }
+        throw new BadRequestException("Unsupported sort: " + key + ". Supported sorts: "
+            + Arrays.stream(values()).map(ProductSort::getKey).collect(Collectors.joining(", ")));
+    }
+
+    public Sort.Direction direction(String direction) {
+        if (direction == null || direction.isEmpty()) {
+            return defaultDirection;
+        }
+        return Sort.Direction.fromOptionalString(direction)
+            .orElseThrow(() -> new BadRequestException("Unsupported sort direction: " + direction));
+    }
+
+    // Tie-broken by id in the same direction so the whole order can be read from one index
+    public Sort toSort(Sort.Direction direction) {
+        if (property == null) {
+            throw new IllegalStateException(key + " is not a database sort");
+        }
+        return Sort.by(direction, property).and(Sort.by(direction, "id"));
+    }
+
+    public String getKey() { return key; }
+
+    public String getProperty() { return property; }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One SSE subscriber with its own bounded queue. Events are sent in order by at most one task at
+ * a time on the shared sender pool, so a client with a slow socket holds one sender thread and
+ * never delays anybody else's queue. A client that falls so far behind that its queue fills up is
+ * completed instead; it reconnects and resumes from its last event id.
+ */
+class SseSubscription {
+
+    private final SseEmitter emitter;
+    private final Executor sender;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+    private final Runnable onClose;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean overflowed;
+    private volatile boolean closed;
+
+    // onClose runs once when the emitter completes, times out or fails; the emitter keeps only one callback of each
+    SseSubscription(SseEmitter emitter, Executor sender, int capacity, Runnable onClose) {
+        this.emitter = emitter;
+        this.sender = sender;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.onClose = onClose;
+        emitter.onCompletion(this::close);
+        emitter.onTimeout(this::close);
+        emitter.onError(error -> close());
+    }
+
+    // Never blocks; returns false once the subscriber is gone or too slow to keep up
+    boolean offer(SseEmitter.SseEventBuilder event) {
+        if (closed || overflowed) {
+            return false;
+        }
+        if (!queue.offer(event)) {
+            overflowed = true;
+            queue.clear();
+        }
+        schedule();
+        return !overflowed;
+    }
+
+    private void close() {
+        if (!closed) {
+            closed = true;
+            onClose.run();
+        }
+        queue.clear();
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            if (overflowed) {
+                // Completed from the sender thread so the publisher never waits on a slow socket
+                close();
+                emitter.complete();
+                return;
+            }
+            SseEmitter.SseEventBuilder event;
+            while (!closed && (event = queue.poll()) != null) {
+                emitter.send(event);
+            }
+        } catch (IOException e) {
+            close();
+            emitter.completeWithError(e);
+        } catch (IllegalStateException e) {
+            // Already completed
+            close();
+        } finally {
+            draining.set(false);
+        }
+        if (!closed && (overflowed || !queue.isEmpty())) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private CatalogSnapshot snapshot;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("catalog.snapshot");
+        snapshot = new CatalogSnapshot();
+        ReflectionTestUtils.setField(snapshot, "enabled", true);
+        ReflectionTestUtils.setField(snapshot, "path", file);
+        snapshot.rebuild(Arrays.asList(product(1L, "iPhone 15 Pro", "Apple"), product(2L, "Café Crème", null)));
+        snapshot.markScannedUpTo(LocalDateTime.of(2024, 4, 30, 12, 0));
+    }
+
+    @Test
+    void write_ShouldRoundTripActiveProductsIncludingLaterChanges() {
+        // Given
+        Product deleted = product(1L, "iPhone 15 Pro", "Apple");
+        deleted.setIsActive(false);
+        snapshot.apply(deleted);
+        snapshot.apply(product(3L, "Galaxy S24", "Samsung"));
+
+        // When
+        snapshot.write();
+        CatalogSnapshot.Contents contents = snapshot.load().orElseThrow();
+        List<Product> loaded = contents.products();
+
+        // Then
+        assertEquals(List.of(2L, 3L), loaded.stream().map(Product::getId).sorted().toList());
+        Product cafe = loaded.stream().filter(p -> p.getId() == 2L).findFirst().orElseThrow();
+        assertEquals("Café Crème", cafe.getName());
+        assertNull(cafe.getBrand());
+        assertEquals(new BigDecimal("12.50"), cafe.getPrice());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123_000_000), cafe.getUpdatedAt());
+        assertTrue(cafe.getIsActive());
+        assertEquals(LocalDateTime.of(2024, 4, 30, 12, 0), contents.watermark());
+    }
+
+    @Test
+    void write_ShouldWaitUntilRebuiltProductsHaveAWatermark() {
+        // Given
+        snapshot.write();
+        snapshot.rebuild(List.of(product(3L, "Galaxy S24", "Samsung")));
+
+        // When
+        snapshot.write();
+
+        // Then
+        assertEquals(List.of(1L, 2L), snapshot.load().orElseThrow().products().stream().map(Product::getId).sorted().toList());
+    }
+
+    @Test
+    void load_ShouldIgnoreCorruptedOrMissingFiles() throws Exception {
+        // Given
+        assertEquals(Optional.empty(), snapshot.load());
+        snapshot.write();
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes, StandardOpenOption.TRUNCATE_EXISTING);
+
+        // When & Then
+        assertEquals(Optional.empty(), snapshot.load());
+    }
+
+    private Product product(Long id, String name, String brand) {
+        Product product = new Product(name, "Description " + id, new BigDecimal("12.50"), 7, "Electronics");
+        product.setId(id);
+        product.setBrand(brand);
+        product.setIsActive(true);
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        product.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123_000_000));
+        return product;
+    }
+}
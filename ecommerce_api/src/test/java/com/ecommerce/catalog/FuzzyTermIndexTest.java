@@ -0,0 +1,67 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyTermIndexTest {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private FuzzyTermIndex fuzzyIndex;
+
+    @BeforeEach
+    void setUp() {
+        fuzzyIndex = new FuzzyTermIndex();
+        fuzzyIndex.rebuild(Arrays.asList(
+            product(1L, "Wireless Headphones"),
+            product(2L, "Wireless Keyboard"),
+            product(3L, "Running Shoes")
+        ));
+    }
+
+    @Test
+    void correct_ShouldRewriteMisspelledTermsWithinEditBound() {
+        // When & Then
+        assertEquals("wireless headphones", fuzzyIndex.correct("wirless headphnoes", NO_DEADLINE));
+        assertEquals("running", fuzzyIndex.correct("runing", NO_DEADLINE));
+        assertNull(fuzzyIndex.correct("wireless", NO_DEADLINE));
+        assertNull(fuzzyIndex.correct("toaster", NO_DEADLINE));
+        assertNull(fuzzyIndex.correct("wirezzz", NO_DEADLINE));
+    }
+
+    @Test
+    void correct_ShouldKeepLastTermWhenItIsAPrefixAndGiveUpPastDeadline() {
+        // When & Then
+        assertNull(fuzzyIndex.correct("keyb", NO_DEADLINE));
+        assertNull(fuzzyIndex.correct("wirless", System.nanoTime() - 1));
+    }
+
+    @Test
+    void apply_ShouldDropTermsOfRenamedAndInactiveProducts() {
+        // Given
+        Product deleted = product(3L, "Running Shoes");
+        deleted.setIsActive(false);
+
+        // When
+        fuzzyIndex.apply(product(2L, "Mechanical Keyboard"));
+        fuzzyIndex.apply(deleted);
+
+        // Then
+        assertNull(fuzzyIndex.correct("runing", NO_DEADLINE));
+        assertEquals("wireless", fuzzyIndex.correct("wirelss", NO_DEADLINE));
+        assertEquals("mechanical", fuzzyIndex.correct("mechancal", NO_DEADLINE));
+    }
+
+    private Product product(Long id, String name) {
+        Product product = new Product(name, null, new BigDecimal("10.00"), 10, "Electronics");
+        product.setId(id);
+        product.setIsActive(true);
+        return product;
+    }
+}
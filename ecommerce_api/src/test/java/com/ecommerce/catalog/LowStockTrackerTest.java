@@ -0,0 +1,78 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LowStockTrackerTest {
+
+    private LowStockTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new LowStockTracker();
+        tracker.rebuild(Arrays.asList(
+            product(1L, 50),
+            product(2L, 3),
+            product(3L, 0),
+            product(4L, 3),
+            product(5L, 12)
+        ));
+    }
+
+    @Test
+    void below_ShouldReturnLowestStockFirstUpToLimit() {
+        // When & Then
+        assertEquals(List.of(3L, 2L, 4L), tracker.below(10, 10));
+        assertEquals(List.of(3L, 2L), tracker.below(10, 2));
+        assertEquals(List.of(), tracker.below(0, 10));
+    }
+
+    @Test
+    void apply_ShouldMoveProductsBetweenLevelsAndDropInactiveOnes() {
+        // Given
+        Product restocked = product(3L, 40);
+        Product drained = product(1L, 1);
+        Product deleted = product(2L, 3);
+        deleted.setIsActive(false);
+
+        // When
+        tracker.apply(restocked);
+        tracker.apply(drained);
+        tracker.apply(deleted);
+
+        // Then
+        assertEquals(List.of(1L, 4L), tracker.below(10, 10));
+    }
+
+    @Test
+    void apply_ShouldNotifyListenersOnlyWhenStockChanges() {
+        // Given
+        List<String> changes = new ArrayList<>();
+        tracker.addListener((product, previous, current) -> changes.add(product.getId() + ":" + previous + "->" + current));
+        Product deleted = product(4L, 3);
+        deleted.setIsActive(false);
+
+        // When
+        tracker.apply(product(5L, 12));
+        tracker.apply(product(5L, 7));
+        tracker.apply(deleted);
+
+        // Then
+        assertEquals(List.of("5:12->7", "4:3->null"), changes);
+    }
+
+    private Product product(Long id, int stock) {
+        Product product = new Product("Product " + id, null, new BigDecimal("10.00"), stock, "Electronics");
+        product.setId(id);
+        product.setIsActive(true);
+        return product;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PopularityRankingTest {
+
+    private PopularityRanking ranking;
+    private ProductPopularity popularity;
+
+    @BeforeEach
+    void setUp() {
+        popularity = new ProductPopularity();
+        popularity.record(1L, 5);
+        popularity.record(2L, 40);
+        popularity.record(4L, 5);
+        ranking = new PopularityRanking();
+        ReflectionTestUtils.setField(ranking, "popularity", popularity);
+        ranking.register();
+        ranking.rebuild(Arrays.asList(product(1L), product(2L), product(3L), product(4L)));
+    }
+
+    @Test
+    void page_ShouldRankByUnitsSoldWithIdTieBreakInBothDirections() {
+        // When & Then
+        assertEquals(List.of(2L, 1L, 4L, 3L), ranking.page(true, 0, 10).getIds());
+        assertEquals(List.of(4L, 3L), ranking.page(true, 2, 2).getIds());
+        assertEquals(List.of(3L, 4L, 1L, 2L), ranking.page(false, 0, 10).getIds());
+        assertEquals(4, ranking.page(true, 0, 1).getTotal());
+    }
+
+    @Test
+    void after_ShouldContinueStrictlyAfterTheLastRankedProduct() {
+        // Given
+        PopularityRanking.RankedProduct last = new PopularityRanking.RankedProduct(1L, 5);
+
+        // When & Then
+        assertEquals(List.of(4L, 3L), ranking.after(true, last, 10).stream().map(PopularityRanking.RankedProduct::id).toList());
+        assertEquals(List.of(2L), ranking.after(false, last, 10).stream().map(PopularityRanking.RankedProduct::id).toList());
+    }
+
+    @Test
+    void salesAndDeactivation_ShouldMoveProductsIncrementally() {
+        // Given
+        Product deleted = product(2L);
+        deleted.setIsActive(false);
+
+        // When
+        popularity.record(3L, 6);
+        ranking.apply(deleted);
+        ranking.apply(product(5L));
+
+        // Then
+        assertEquals(List.of(3L, 1L, 4L, 5L), ranking.page(true, 0, 10).getIds());
+    }
+
+    @Test
+    void refresh_ShouldRerankBySalesStoredFromOtherNodes() {
+        // Given
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.sumUnitsByProduct(OrderStatus.CANCELLED)).thenReturn(List.of(
+            new Object[]{1L, 5L}, new Object[]{2L, 40L}, new Object[]{3L, 50L}));
+        ReflectionTestUtils.setField(popularity, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(popularity, "transactionManager", mock(PlatformTransactionManager.class));
+
+        // When
+        popularity.refresh();
+
+        // Then
+        assertEquals(List.of(3L, 2L, 1L, 4L), ranking.page(true, 0, 10).getIds());
+        assertEquals(50, popularity.get(3L));
+        assertEquals(0, popularity.get(4L));
+    }
+
+    private Product product(Long id) {
+        Product product = new Product("Product " + id, null, new BigDecimal("10.00"), 10, "Electronics");
+        product.setId(id);
+        product.setIsActive(true);
+        return product;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.dto.response.ProductFacetsResponse;
+import com.ecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFilterIndexTest {
+
+    private ProductFilterIndex filterIndex;
+
+    @BeforeEach
+    void setUp() {
+        filterIndex = new ProductFilterIndex();
+        filterIndex.rebuild(Arrays.asList(
+            product(1L, "999.99", "Electronics"),
+            product(2L, "849.99", "Electronics"),
+            product(5L, "129.99", "Footwear"),
+            product(6L, "179.99", "Footwear"),
+            product(8L, "399.99", "Electronics")
+        ));
+    }
+
+    @Test
+    void filter_ByCategoryAndPriceRange_ShouldReturnMatchingIdsInIdOrder() {
+        // When
+        IdPage result = filterIndex.filter("Electronics", new BigDecimal("400"), new BigDecimal("999.99"), 0, 10);
+
+        // Then
+        assertEquals(List.of(1L, 2L), result.getIds());
+        assertEquals(2, result.getTotal());
+    }
+
+    @Test
+    void filter_WithoutCategory_ShouldUseGlobalPriceColumn() {
+        // When
+        IdPage result = filterIndex.filter(null, null, new BigDecimal("399.99"), 0, 10);
+
+        // Then
+        assertEquals(List.of(5L, 6L, 8L), result.getIds());
+    }
+
+    @Test
+    void filter_ShouldPageAndCount() {
+        // When
+        IdPage result = filterIndex.filter(null, null, null, 1, 2);
+
+        // Then
+        assertEquals(List.of(2L, 5L), result.getIds());
+        assertEquals(5, result.getTotal());
+    }
+
+    @Test
+    void filterAfter_ShouldContinueAfterGivenId() {
+        // When
+        List<Long> result = filterIndex.filterAfter("Electronics", null, null, 2L, 10);
+
+        // Then
+        assertEquals(List.of(8L), result);
+    }
+
+    @Test
+    void apply_ShouldMoveRepricedAndRecategorizedProducts() {
+        // When
+        filterIndex.apply(product(5L, "1500.00", "Electronics"));
+        filterIndex.apply(product(3L, "20.00", "Footwear"));
+        Product deleted = product(6L, "179.99", "Footwear");
+        deleted.setIsActive(false);
+        filterIndex.apply(deleted);
+
+        // Then
+        assertEquals(List.of(1L, 2L, 5L, 8L), filterIndex.filter("Electronics", null, null, 0, 10).getIds());
+        assertEquals(List.of(5L), filterIndex.filter(null, new BigDecimal("1000"), null, 0, 10).getIds());
+        assertEquals(List.of(3L), filterIndex.filter("Footwear", null, null, 0, 10).getIds());
+    }
+
+    @Test
+    void facets_ShouldCountCategoriesBrandsAndPriceBucketsOfMatches() {
+        // When
+        ProductFacetsResponse facets = filterIndex.facets(null, null, new BigDecimal("900"), List.of(1L, 2L, 5L, 8L),
+            List.of(new BigDecimal("200"), new BigDecimal("500")));
+
+        // Then
+        assertEquals(3, facets.getTotal());
+        assertEquals(Map.of("Electronics", 2L, "Footwear", 1L), facets.getCategories());
+        assertEquals(2L, facets.getBrands().get("Acme"));
+        assertEquals(List.of(1L, 1L, 1L), facets.getPriceBuckets().stream().map(ProductFacetsResponse.PriceBucket::getCount).toList());
+    }
+
+    private Product product(Long id, String price, String category) {
+        Product product = new Product("Product " + id, null, new BigDecimal(price), 10, category);
+        product.setId(id);
+        product.setBrand(id % 2 == 0 ? "Acme" : "Globex");
+        product.setIsActive(true);
+        return product;
+    }
+}
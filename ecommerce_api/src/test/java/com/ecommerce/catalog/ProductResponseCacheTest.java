@@ -0,0 +1,76 @@
+package com.ecommerce.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductResponseCacheTest {
+
+    private ProductResponseCache responseCache;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new ProductResponseCache(DataSize.ofMegabytes(1), DataSize.ofBytes(64));
+        ReflectionTestUtils.setField(responseCache, "objectMapper", new ObjectMapper());
+        renders = new AtomicInteger();
+    }
+
+    @Test
+    void detail_ShouldServeCachedBytesUntilVersionChanges() {
+        // When
+        byte[] first = responseCache.detail(1L, 3, () -> body("v3")).getJson();
+        byte[] again = responseCache.detail(1L, 3, () -> body("other")).getJson();
+        byte[] bumped = responseCache.detail(1L, 4, () -> body("v4")).getJson();
+
+        // Then
+        assertSame(first, again);
+        assertEquals("{\"name\":\"v4\"}", new String(bumped, StandardCharsets.UTF_8));
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void evict_ShouldDropListingsAndTheChangedProduct() {
+        // Given
+        responseCache.detail(1L, 1, () -> body("a"));
+        responseCache.listing("page\u000010", 1, () -> body("list"));
+
+        // When
+        responseCache.evict(1L);
+        responseCache.detail(1L, 1, () -> body("a"));
+        responseCache.listing("page\u000010", 1, () -> body("list"));
+
+        // Then
+        assertEquals(4, renders.get());
+    }
+
+    @Test
+    void listing_ShouldGzipOnlyLargeBodies() throws IOException {
+        // When
+        ProductResponseCache.CachedResponse small = responseCache.listing("small", 1, () -> body("x"));
+        ProductResponseCache.CachedResponse large = responseCache.listing("large", 1, () -> body("x".repeat(500)));
+
+        // Then
+        assertNull(small.getGzip());
+        assertNotNull(large.getGzip());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(large.getGzip()))) {
+            assertArrayEquals(large.getJson(), in.readAllBytes());
+        }
+    }
+
+    private Map<String, String> body(String name) {
+        renders.incrementAndGet();
+        return Map.of("name", name);
+    }
+}
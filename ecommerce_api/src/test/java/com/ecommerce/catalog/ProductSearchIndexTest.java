@@ -0,0 +1,94 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ProductSearchIndex();
+        searchIndex.rebuild(Arrays.asList(
+            product(1L, "iPhone 15 Pro", "Latest Apple smartphone", "Electronics", "Apple"),
+            product(2L, "MacBook Pro M3", "Professional laptop", "Electronics", "Apple"),
+            product(3L, "Nike Air Max 270", "Comfortable running shoes", "Footwear", "Nike"),
+            product(4L, "Running Socks", "Socks for the Pro runner", "Clothing", "Nike")
+        ));
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        // When
+        IdPage result = searchIndex.search("pro", 0, 10);
+
+        // Then
+        assertEquals(3, result.getTotal());
+        assertEquals(4L, result.getIds().get(2));
+    }
+
+    @Test
+    void search_ShouldRequireAllTerms() {
+        // When
+        IdPage result = searchIndex.search("apple laptop", 0, 10);
+
+        // Then
+        assertEquals(List.of(2L), result.getIds());
+    }
+
+    @Test
+    void search_ShouldMatchLastTermAsPrefix() {
+        // When
+        IdPage result = searchIndex.search("nike runn", 0, 10);
+
+        // Then
+        assertEquals(2, result.getTotal());
+        assertTrue(result.getIds().containsAll(List.of(3L, 4L)));
+    }
+
+    @Test
+    void search_ShouldPageResults() {
+        // When
+        IdPage firstPage = searchIndex.search("electronics", 0, 1);
+        IdPage secondPage = searchIndex.search("electronics", 1, 1);
+
+        // Then
+        assertEquals(2, firstPage.getTotal());
+        assertEquals(1, firstPage.getIds().size());
+        assertEquals(1, secondPage.getIds().size());
+        assertNotEquals(firstPage.getIds().get(0), secondPage.getIds().get(0));
+    }
+
+    @Test
+    void apply_ShouldReindexUpdatedProductsAndDropInactiveOnes() {
+        // Given
+        Product renamed = product(3L, "Nike Pegasus", "Road running shoes", "Footwear", "Nike");
+        Product deleted = product(1L, "iPhone 15 Pro", "Latest Apple smartphone", "Electronics", "Apple");
+        deleted.setIsActive(false);
+
+        // When
+        searchIndex.apply(renamed);
+        searchIndex.apply(deleted);
+
+        // Then
+        assertEquals(0, searchIndex.search("max", 0, 10).getTotal());
+        assertEquals(List.of(3L), searchIndex.search("pegasus", 0, 10).getIds());
+        assertEquals(List.of(2L), searchIndex.search("apple", 0, 10).getIds());
+    }
+
+    private Product product(Long id, String name, String description, String category, String brand) {
+        Product product = new Product(name, description, new BigDecimal("10.00"), 5, category);
+        product.setId(id);
+        product.setBrand(brand);
+        product.setIsActive(true);
+        return product;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.dto.response.ProductSuggestion;
+import com.ecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSuggestIndexTest {
+
+    private ProductSuggestIndex suggestIndex;
+    private ProductPopularity popularity;
+
+    @BeforeEach
+    void setUp() {
+        popularity = new ProductPopularity();
+        popularity.record(1L, 5);
+        popularity.record(2L, 40);
+        popularity.record(3L, 1);
+        suggestIndex = new ProductSuggestIndex();
+        ReflectionTestUtils.setField(suggestIndex, "popularity", popularity);
+        suggestIndex.rebuild(Arrays.asList(
+            product(1L, "iPhone 15 Pro", "Apple"),
+            product(2L, "iPhone 15", "Apple"),
+            product(3L, "Pro Runner Shoes", "Adidas")
+        ));
+    }
+
+    @Test
+    void suggest_ShouldMatchWordStartsAndRankByUnitsSold() {
+        // When
+        List<ProductSuggestion> suggestions = suggestIndex.suggest("pro", 10);
+
+        // Then
+        assertEquals(List.of(1L, 3L), suggestions.stream().map(ProductSuggestion::getProductId).toList());
+    }
+
+    @Test
+    void suggest_ShouldAggregateBrandPopularityAndRespectLimit() {
+        // When
+        List<ProductSuggestion> suggestions = suggestIndex.suggest("a", 1);
+
+        // Then
+        assertEquals(1, suggestions.size());
+        assertEquals("Apple", suggestions.get(0).getText());
+        assertEquals(ProductSuggestion.Type.BRAND, suggestions.get(0).getType());
+        assertEquals(45, suggestions.get(0).getPopularity());
+    }
+
+    @Test
+    void apply_ShouldReplaceRenamedAndDropInactiveProducts() {
+        // Given
+        Product deleted = product(3L, "Pro Runner Shoes", "Adidas");
+        deleted.setIsActive(false);
+
+        // When
+        suggestIndex.apply(product(1L, "Galaxy S24", "Samsung"));
+        suggestIndex.apply(deleted);
+
+        // Then
+        assertTrue(suggestIndex.suggest("pro", 10).isEmpty());
+        assertEquals(List.of("iPhone 15"), suggestIndex.suggest("IPH", 10).stream().map(ProductSuggestion::getText).toList());
+        assertEquals("Galaxy S24", suggestIndex.suggest("gal", 10).get(0).getText());
+    }
+
+    private Product product(Long id, String name, String brand) {
+        Product product = new Product(name, null, new BigDecimal("10.00"), 10, "Electronics");
+        product.setId(id);
+        product.setBrand(brand);
+        product.setIsActive(true);
+        return product;
+    }
+}
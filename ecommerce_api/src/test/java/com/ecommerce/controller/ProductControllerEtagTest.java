@@ -0,0 +1,104 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.catalog.CatalogVersion;
+import com.ecommerce.catalog.ProductResponseCache;
+import com.ecommerce.dto.response.ProductResponse;
+import com.ecommerce.entity.Product;
+import com.ecommerce.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Conditional GETs against the real catalog version and response cache, outside the full web context
+@ExtendWith(MockitoExtension.class)
+class ProductControllerEtagTest {
+
+    @Mock
+    private ProductService productService;
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private MockMvc mockMvc;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        ProductResponseCache responseCache = new ProductResponseCache(DataSize.ofMegabytes(1), DataSize.ofBytes(64));
+        ReflectionTestUtils.setField(responseCache, "objectMapper", new ObjectMapper());
+        ProductController productController = new ProductController();
+        ReflectionTestUtils.setField(productController, "productService", productService);
+        ReflectionTestUtils.setField(productController, "catalogVersion", catalogVersion);
+        ReflectionTestUtils.setField(productController, "responseCache", responseCache);
+        mockMvc = MockMvcBuilders.standaloneSetup(productController).build();
+
+        product = new Product("Aa", "Test Description", new BigDecimal("99.99"), 10, "Electronics");
+        product.setId(1L);
+        product.setIsActive(true);
+        catalogVersion.rebuild(List.of(product));
+    }
+
+    @Test
+    void getProductById_WithCurrentEtag_ShouldAnswerNotModifiedUntilTheProductChanges() throws Exception {
+        // Given
+        when(productService.getProductById(1L)).thenAnswer(invocation -> ProductResponse.from(product));
+        String etag = mockMvc.perform(get("/api/products/1"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+        // Same String.hashCode as "Aa", so a hashed fingerprint would have missed this rename
+        product.setName("BB");
+        catalogVersion.apply(product);
+        String changed = mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("BB"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+        verify(productService, times(2)).getProductById(1L);
+    }
+
+    @Test
+    void getProductById_ShouldTagGzipAndIdentityBodiesDifferently() throws Exception {
+        // Given
+        when(productService.getProductById(1L)).thenAnswer(invocation -> ProductResponse.from(product));
+
+        // When
+        String identity = mockMvc.perform(get("/api/products/1"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzip = mockMvc.perform(get("/api/products/1").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Then
+        assertEquals(identity.substring(0, identity.length() - 1) + "-gzip\"", gzip);
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzip))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, gzip));
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, gzip))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, identity));
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, identity))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+            .andExpect(status().isOk())
+            .andExpect(header().stringValues(HttpHeaders.ETAG, gzip));
+    }
+}
@@ -1,7 +1,12 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.catalog.CatalogVersion;
+import com.ecommerce.catalog.ProductResponseCache;
 import com.ecommerce.dto.request.ProductRequest;
+import com.ecommerce.dto.response.ProductResponse;
 import com.ecommerce.entity.Product;
+import com.ecommerce.service.LowStockStreamService;
+import com.ecommerce.service.ProductImportService;
 import com.ecommerce.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -35,6 +40,18 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductImportService productImportService;
+
+    @MockBean
+    private LowStockStreamService lowStockStreamService;
+
+    @MockBean
+    private CatalogVersion catalogVersion;
+
+    @MockBean
+    private ProductResponseCache responseCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -63,8 +80,8 @@ class ProductControllerTest {
     @Test
     void getAllProducts_ShouldReturnProducts() throws Exception {
         // Given
-        List<Product> products = Arrays.asList(testProduct);
-        Page<Product> productPage = new PageImpl<>(products, PageRequest.of(0, 10), 1);
+        List<ProductResponse> products = Arrays.asList(ProductResponse.from(testProduct));
+        Page<ProductResponse> productPage = new PageImpl<>(products, PageRequest.of(0, 10), 1);
         when(productService.getAllProducts(any())).thenReturn(productPage);
 
         // When & Then
@@ -79,7 +96,7 @@ class ProductControllerTest {
     @Test
     void getProductById_ShouldReturnProduct() throws Exception {
         // Given
-        when(productService.getProductById(1L)).thenReturn(testProduct);
+        when(productService.getProductById(1L)).thenReturn(ProductResponse.from(testProduct));
 
         // When & Then
         mockMvc.perform(get("/api/products/1"))
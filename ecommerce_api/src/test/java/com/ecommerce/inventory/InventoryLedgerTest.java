@@ -0,0 +1,215 @@
+package com.ecommerce.inventory;
+
+import com.ecommerce.catalog.ProductCache;
+import com.ecommerce.catalog.ProductChangedEvent;
+import com.ecommerce.catalog.ProductResponseCache;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductRepository;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class InventoryLedgerTest {
+
+    @TempDir
+    Path journalDirectory;
+
+    private DataSourceTransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ProductRepository productRepository;
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:inventory;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS products");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS inventory_checkpoint");
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, stock_quantity INT, updated_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO products VALUES (1, 50, NULL), (2, 10, NULL)");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findAllById(anyIterable())).thenAnswer(invocation -> products(invocation.getArgument(0)));
+        eventPublisher = mock(ApplicationEventPublisher.class);
+    }
+
+    @Test
+    void reserve_ShouldNeverOversellAndWriteCommittedChangesBehind() throws Exception {
+        // Given
+        InventoryLedger ledger = ledger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        AtomicInteger sold = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                if (ledger.reserve(1L, 1)) {
+                    sold.incrementAndGet();
+                }
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            ledger.reserve(2L, 4);
+            status.setRollbackOnly();
+        });
+        ledger.release(1L, 5);
+        ledger.flush();
+
+        // Then
+        assertEquals(50, sold.get());
+        assertEquals(5, ledger.available(1L));
+        assertEquals(10, ledger.available(2L));
+        assertEquals(5, stock(1L));
+        assertEquals(10, stock(2L));
+        assertEquals(51L, jdbcTemplate.queryForObject("SELECT journal_sequence FROM inventory_checkpoint", Long.class));
+    }
+
+    @Test
+    void recover_ShouldReplayJournaledChangesThatWereNotWrittenBehind() throws Exception {
+        // Given
+        InventoryLedger crashed = ledger();
+        crashed.reserve(1L, 3);
+        crashed.flush();
+        crashed.reserve(1L, 4);
+        crashed.reserve(2L, 10);
+        assertEquals(47, stock(1L));
+
+        // When
+        InventoryLedger restarted = ledger();
+
+        // Then
+        assertEquals(43, stock(1L));
+        assertEquals(0, stock(2L));
+        assertEquals(43, restarted.available(1L));
+        assertFalse(restarted.reserve(2L, 1));
+    }
+
+    @Test
+    void reconcile_ShouldAdoptDatabaseStockChangedByAnotherWriter() throws Exception {
+        // Given
+        InventoryLedger ledger = ledger();
+        ledger.reserve(1L, 5);
+        jdbcTemplate.update("UPDATE products SET stock_quantity = stock_quantity + 100 WHERE id = 2");
+
+        // When
+        ledger.reconcile();
+
+        // Then
+        assertEquals(45, stock(1L));
+        assertEquals(45, ledger.available(1L));
+        assertEquals(110, ledger.available(2L));
+    }
+
+    @Test
+    void flush_ShouldAnnounceWrittenStockToTheCatalog() throws Exception {
+        // Given
+        InventoryLedger ledger = ledger();
+        transactionTemplate.executeWithoutResult(status -> ledger.reserve(1L, 3));
+
+        // When
+        ledger.flush();
+        ledger.flush();
+
+        // Then
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(1L, event.getValue().getProduct().getId());
+        assertEquals(47, event.getValue().getProduct().getStockQuantity());
+        assertTrue(event.getValue().isWriteBehind());
+    }
+
+    @Test
+    void adjust_ShouldChangeLedgerStockWithoutTakingWhatOpenOrdersHold() throws Exception {
+        // Given
+        InventoryLedger ledger = ledger();
+        ledger.reserve(2L, 4);
+        TransactionTemplate openOrder = new TransactionTemplate(transactionManager);
+        openOrder.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // When
+        List<InventoryLedger.Adjustment> adjustments = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            adjustments.add(ledger.adjust(1L, -20, null));
+            openOrder.executeWithoutResult(inner -> {
+                ledger.reserve(1L, 25);
+                adjustments.add(ledger.adjust(1L, null, 10));
+                inner.setRollbackOnly();
+            });
+            adjustments.add(ledger.adjust(1L, null, 40));
+            adjustments.add(ledger.adjust(2L, null, 15));
+            adjustments.add(ledger.adjust(3L, 1, null));
+        });
+        ledger.flush();
+
+        // Then
+        assertEquals(new InventoryLedger.Adjustment(true, 30), adjustments.get(0));
+        assertEquals(new InventoryLedger.Adjustment(false, 25), adjustments.get(1));
+        assertEquals(new InventoryLedger.Adjustment(true, 40), adjustments.get(2));
+        assertEquals(new InventoryLedger.Adjustment(true, 15), adjustments.get(3));
+        assertNull(adjustments.get(4));
+        assertEquals(40, ledger.available(1L));
+        assertEquals(15, ledger.available(2L));
+        assertEquals(40, stock(1L));
+        assertEquals(15, stock(2L));
+    }
+
+    private InventoryLedger ledger() throws Exception {
+        InventoryLedger ledger = new InventoryLedger();
+        ReflectionTestUtils.setField(ledger, "enabled", true);
+        ReflectionTestUtils.setField(ledger, "journalDirectory", journalDirectory);
+        ReflectionTestUtils.setField(ledger, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(ledger, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(ledger, "productCache", new ProductCache(100, Duration.ofMinutes(5)));
+        ReflectionTestUtils.setField(ledger, "responseCache", mock(ProductResponseCache.class));
+        ReflectionTestUtils.setField(ledger, "productRepository", productRepository);
+        ReflectionTestUtils.setField(ledger, "eventPublisher", eventPublisher);
+        ledger.recover();
+        return ledger;
+    }
+
+    // Stands in for the JPA read-back with the row as the flush's transaction sees it
+    private List<Product> products(Iterable<Long> ids) {
+        List<Product> products = new ArrayList<>();
+        for (Long id : ids) {
+            Product product = new Product();
+            product.setId(id);
+            product.setStockQuantity(stock(id));
+            products.add(product);
+        }
+        return products;
+    }
+
+    private int stock(Long id) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, id);
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.request.OrderRequest;
+import com.ecommerce.dto.response.OrderRequestStatusResponse;
+import com.ecommerce.entity.Order;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncOrderServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @InjectMocks
+    private AsyncOrderService asyncOrderService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:async-orders;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_requests");
+        ReflectionTestUtils.setField(asyncOrderService, "enabled", true);
+        ReflectionTestUtils.setField(asyncOrderService, "workers", 2);
+        ReflectionTestUtils.setField(asyncOrderService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(asyncOrderService, "staleAfter", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(asyncOrderService, "retention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(asyncOrderService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(asyncOrderService, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(asyncOrderService, "objectMapper", new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncOrderService.stop();
+    }
+
+    @Test
+    void submit_ShouldPlaceOrderInBackgroundAndReportOutcomeToItsOwnerOnly() throws Exception {
+        // Given
+        Order order = new Order();
+        order.setId(42L);
+        when(orderService.createOrder(eq(7L), any(OrderRequest.class))).thenReturn(order);
+        when(orderService.createOrder(eq(8L), any(OrderRequest.class)))
+            .thenThrow(new IllegalArgumentException("Insufficient stock for product: Jeans"));
+        asyncOrderService.start();
+
+        // When
+        OrderRequestStatusResponse accepted = asyncOrderService.submit(7L, order(3));
+        OrderRequestStatusResponse rejected = asyncOrderService.submit(8L, order(500));
+
+        // Then
+        assertEquals(OrderRequestStatusResponse.Status.QUEUED, accepted.getStatus());
+        OrderRequestStatusResponse placed = awaitOutcome(accepted.getId(), 7L);
+        assertEquals(OrderRequestStatusResponse.Status.COMPLETED, placed.getStatus());
+        assertEquals(42L, placed.getOrderId());
+        OrderRequestStatusResponse failed = awaitOutcome(rejected.getId(), 8L);
+        assertEquals(OrderRequestStatusResponse.Status.FAILED, failed.getStatus());
+        assertEquals("Insufficient stock for product: Jeans", failed.getError());
+        assertThrows(ResourceNotFoundException.class, () -> asyncOrderService.getStatus(accepted.getId(), 8L, false));
+        assertEquals(42L, asyncOrderService.getStatus(accepted.getId(), 1L, true).getOrderId());
+        verify(orderService).createOrder(eq(7L), argThat(request -> request.getOrderItems().get(0).getQuantity() == 3));
+    }
+
+    @Test
+    void start_ShouldResumeQueuedRequestsAndSweepShouldRequeueStalledOnes() throws Exception {
+        // Given
+        Order order = new Order();
+        order.setId(5L);
+        when(orderService.createOrder(anyLong(), any(OrderRequest.class))).thenReturn(order);
+        jdbcTemplate.execute(AsyncOrderService.CREATE_TABLE_SQL);
+        String payload = new ObjectMapper().writeValueAsString(order(1));
+        Timestamp longAgo = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+        jdbcTemplate.update("INSERT INTO order_requests (id, user_id, payload, status, submitted_at) VALUES ('queued', 7, ?, 'QUEUED', ?)",
+            payload, longAgo);
+        jdbcTemplate.update("INSERT INTO order_requests (id, user_id, payload, status, claim, submitted_at, started_at) " +
+            "VALUES ('stalled', 7, ?, 'PROCESSING', 'dead-worker', ?, ?)", payload, longAgo, longAgo);
+
+        // When
+        asyncOrderService.start();
+        OrderRequestStatusResponse resumed = awaitOutcome("queued", 7L);
+        asyncOrderService.sweep();
+        OrderRequestStatusResponse requeued = awaitOutcome("stalled", 7L);
+
+        // Then
+        assertEquals(OrderRequestStatusResponse.Status.COMPLETED, resumed.getStatus());
+        assertEquals(OrderRequestStatusResponse.Status.COMPLETED, requeued.getStatus());
+        verify(orderService, times(2)).createOrder(anyLong(), any(OrderRequest.class));
+    }
+
+    private OrderRequestStatusResponse awaitOutcome(String id, Long userId) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            OrderRequestStatusResponse status = asyncOrderService.getStatus(id, userId, false);
+            if (status.getStatus() == OrderRequestStatusResponse.Status.COMPLETED
+                    || status.getStatus() == OrderRequestStatusResponse.Status.FAILED) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        fail("Order request " + id + " was not processed");
+        return null;
+    }
+
+    private static OrderRequest order(int quantity) {
+        OrderRequest request = new OrderRequest();
+        request.setOrderItems(List.of(new OrderRequest.OrderItemRequest(7L, quantity)));
+        request.setShippingAddress("1 Test Street");
+        return request;
+    }
+}
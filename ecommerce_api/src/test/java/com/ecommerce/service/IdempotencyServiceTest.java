@@ -0,0 +1,128 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.BadRequestException;
+import com.ecommerce.exception.ConflictException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS idempotency_keys");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS placed_orders");
+        jdbcTemplate.execute("CREATE TABLE placed_orders (id INT PRIMARY KEY)");
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    void execute_ShouldReplayStoredResponseAcrossNodesWithoutRunningAgain() {
+        // Given
+        IdempotencyService node = service();
+        IdempotencyService otherNode = service();
+        Map<String, Object> request = Map.of("productId", 7, "quantity", 3);
+
+        // When
+        ResponseEntity<?> first = node.execute(1L, "retry-1", request, this::createOrder);
+        ResponseEntity<?> cached = node.execute(1L, "retry-1", request, this::createOrder);
+        ResponseEntity<?> fromDatabase = otherNode.execute(1L, "retry-1", request, this::createOrder);
+        ResponseEntity<?> otherUser = node.execute(2L, "retry-1", request, this::createOrder);
+
+        // Then
+        assertEquals(2, executions.get());
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertEquals("{\"orderId\":1}", cached.getBody());
+        assertEquals("true", cached.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(HttpStatus.CREATED, fromDatabase.getStatusCode());
+        assertEquals("{\"orderId\":1}", fromDatabase.getBody());
+        assertEquals(Map.of("orderId", 2), otherUser.getBody());
+        assertThrows(BadRequestException.class,
+            () -> otherNode.execute(1L, "retry-1", Map.of("productId", 7, "quantity", 4), this::createOrder));
+    }
+
+    @Test
+    void execute_ShouldRejectRetriesWhileRunningAndReleaseKeyOnFailure() {
+        // Given
+        IdempotencyService node = service();
+        Map<String, Object> request = Map.of("productId", 7, "quantity", 3);
+
+        // When & Then
+        node.execute(1L, "in-flight", request, () -> {
+            assertThrows(ConflictException.class, () -> service().execute(1L, "in-flight", request, this::createOrder));
+            return createOrder();
+        });
+        assertThrows(IllegalArgumentException.class, () -> node.execute(1L, "failing", request, () -> {
+            throw new IllegalArgumentException("Insufficient stock");
+        }));
+        assertEquals(HttpStatus.CREATED, node.execute(1L, "failing", request, this::createOrder).getStatusCode());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_WhenClaimIsTakenOverMidRequest_ShouldRollBackTheSlowCallSoOnlyOneOrderCommits() {
+        // Given
+        IdempotencyService slowNode = service(Duration.ZERO);
+        IdempotencyService retryNode = service(Duration.ZERO);
+        Map<String, Object> request = Map.of("productId", 7, "quantity", 3);
+
+        // When
+        assertThrows(ConflictException.class, () -> slowNode.execute(1L, "slow", request, () -> {
+            ResponseEntity<?> placed = placeOrder();
+            // The retry arrives past in-progress-timeout, on another thread as it would on another node
+            CompletableFuture.supplyAsync(() -> retryNode.execute(1L, "slow", request, this::placeOrder)).join();
+            return placed;
+        }));
+        ResponseEntity<?> replayed = slowNode.execute(1L, "slow", request, this::placeOrder);
+
+        // Then
+        assertEquals(List.of(2), jdbcTemplate.queryForList("SELECT id FROM placed_orders", Integer.class));
+        assertEquals("{\"orderId\":2}", replayed.getBody());
+        assertEquals(2, executions.get());
+    }
+
+    // Writes its order through the same database, so it commits or rolls back with the stored response
+    private ResponseEntity<?> placeOrder() {
+        ResponseEntity<?> response = createOrder();
+        jdbcTemplate.update("INSERT INTO placed_orders (id) VALUES (?)", executions.get());
+        return response;
+    }
+
+    private ResponseEntity<?> createOrder() {
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("orderId", executions.incrementAndGet()));
+    }
+
+    private IdempotencyService service() {
+        return service(Duration.ofMinutes(1));
+    }
+
+    private IdempotencyService service(Duration inProgressTimeout) {
+        IdempotencyService service = new IdempotencyService(Duration.ofHours(24), inProgressTimeout, 100);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "transactionManager", new DataSourceTransactionManager(dataSource));
+        service.createTable();
+        return service;
+    }
+}
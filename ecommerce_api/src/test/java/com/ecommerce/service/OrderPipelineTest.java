@@ -0,0 +1,154 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.request.OrderRequest;
+import com.ecommerce.dto.response.OrderBatchResponse;
+import com.ecommerce.entity.Order;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderPipelineTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @InjectMocks
+    private OrderPipeline orderPipeline;
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderPipeline, "enabled", true);
+        ReflectionTestUtils.setField(orderPipeline, "batchSize", 4);
+        ReflectionTestUtils.setField(orderPipeline, "maxWait", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(orderPipeline, "queueCapacity", 100);
+        ReflectionTestUtils.setField(orderPipeline, "timeout", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        orderPipeline.stop();
+    }
+
+    @Test
+    void submit_ShouldGroupQueuedOrdersIntoBatchesAndCompleteEachCaller() throws Exception {
+        // Given
+        when(orderService.placeOrders(anyList(), anyList())).thenAnswer(invocation -> {
+            List<Long> userIds = invocation.getArgument(0);
+            batchSizes.add(userIds.size());
+            List<OrderService.Placement> placements = new ArrayList<>();
+            for (Long userId : userIds) {
+                Order order = new Order();
+                order.setId(userId);
+                placements.add(new OrderService.Placement(OrderBatchResponse.Status.CREATED, order));
+            }
+            return placements;
+        });
+        orderPipeline.start();
+
+        // When
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+        for (long userId = 1; userId <= 10; userId++) {
+            futures.add(orderPipeline.submit(userId, new OrderRequest()));
+        }
+
+        // Then
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i + 1L, futures.get(i).get(5, TimeUnit.SECONDS).getId());
+        }
+        assertEquals(10, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 4));
+        assertTrue(batchSizes.size() < 10);
+    }
+
+    @Test
+    void createOrder_WhenBatchFails_ShouldRetryOrdersAloneAndFailOnlyTheBadOne() {
+        // Given
+        Order order = new Order();
+        when(orderService.placeOrders(anyList(), anyList())).thenAnswer(invocation -> {
+            List<Long> userIds = invocation.getArgument(0);
+            if (userIds.contains(99L)) {
+                throw new ResourceNotFoundException("User not found with id: 99");
+            }
+            return userIds.stream()
+                .map(userId -> userId == 2L
+                    ? new OrderService.Placement(OrderBatchResponse.Status.INSUFFICIENT_STOCK, null)
+                    : new OrderService.Placement(OrderBatchResponse.Status.CREATED, order))
+                .toList();
+        });
+        orderPipeline.start();
+
+        // When
+        CompletableFuture<Order> good = orderPipeline.submit(1L, new OrderRequest());
+        CompletableFuture<Order> shortOfStock = orderPipeline.submit(2L, new OrderRequest());
+        CompletableFuture<Order> bad = orderPipeline.submit(99L, new OrderRequest());
+
+        // Then
+        assertSame(order, good.join());
+        assertThrows(IllegalArgumentException.class, () -> orderPipeline.createOrder(2L, new OrderRequest()));
+        assertTrue(shortOfStock.isCompletedExceptionally());
+        assertThrows(ResourceNotFoundException.class, () -> orderPipeline.createOrder(99L, new OrderRequest()));
+        assertTrue(bad.isCompletedExceptionally());
+    }
+
+    @Test
+    void createOrder_WhenWriterHitsAnError_ShouldFailThatBatchAndKeepPlacingOrders() {
+        // Given
+        Order order = new Order();
+        when(orderService.placeOrders(anyList(), anyList()))
+            .thenThrow(new AssertionError("boom"))
+            .thenReturn(List.of(new OrderService.Placement(OrderBatchResponse.Status.CREATED, order)));
+        orderPipeline.start();
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> orderPipeline.createOrder(1L, new OrderRequest()));
+        assertSame(order, orderPipeline.createOrder(2L, new OrderRequest()));
+    }
+
+    @Test
+    void createOrder_WhenWriterIsStuck_ShouldGiveUpAfterTheTimeoutAndWithdrawQueuedOrders() throws Exception {
+        // Given
+        CountDownLatch placing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.placeOrders(anyList(), anyList())).thenAnswer(invocation -> {
+            placing.countDown();
+            release.await();
+            return List.of(new OrderService.Placement(OrderBatchResponse.Status.CREATED, new Order()));
+        });
+        ReflectionTestUtils.setField(orderPipeline, "timeout", Duration.ofMillis(100));
+        orderPipeline.start();
+        CompletableFuture<Order> stuck = orderPipeline.submit(1L, new OrderRequest());
+        assertTrue(placing.await(5, TimeUnit.SECONDS));
+
+        // When
+        ServiceUnavailableException queued = assertThrows(ServiceUnavailableException.class,
+            () -> orderPipeline.createOrder(2L, new OrderRequest()));
+        release.countDown();
+
+        // Then
+        assertTrue(queued.getMessage().contains("retry shortly"));
+        assertNotNull(stuck.get(5, TimeUnit.SECONDS));
+        verify(orderService, times(1)).placeOrders(anyList(), anyList());
+    }
+}
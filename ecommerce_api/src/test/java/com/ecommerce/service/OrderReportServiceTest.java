@@ -0,0 +1,119 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({OrderReportService.class, JacksonAutoConfiguration.class})
+class OrderReportServiceTest {
+
+    @Autowired
+    private OrderReportService orderReportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private LocalDateTime from;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderReportService, "batchSize", 2);
+        User user = entityManager.persist(new User("report", "report@example.com", "secret123", "Re", "Port"));
+        Product jeans = entityManager.persist(new Product("Jeans, slim", null, new BigDecimal("59.99"), 10, "Clothing"));
+        Product belt = entityManager.persist(new Product("Belt", null, new BigDecimal("15.00"), 10, "Clothing"));
+        from = LocalDateTime.now().minusMinutes(1);
+        for (int i = 1; i <= 5; i++) {
+            Order order = new Order(user, new BigDecimal("59.99").multiply(BigDecimal.valueOf(i)), i + " Main St, Springfield");
+            if (i == 3) {
+                order.setOrderStatus(OrderStatus.CANCELLED);
+            }
+            order.getOrderItems().add(item(order, jeans, i));
+            if (i % 2 == 0) {
+                order.getOrderItems().add(item(order, belt, 1));
+            }
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void export_ShouldStreamEveryOrderWithItsItemsAsNdjson() throws Exception {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long written = orderReportService.export(from, LocalDateTime.now().plusMinutes(1), OrderReportService.Format.NDJSON, output);
+
+        // Then
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(5, written);
+        assertEquals(5, lines.size());
+        JsonNode fourth = objectMapper.readTree(lines.get(3));
+        assertEquals("4 Main St, Springfield", fourth.get("shippingAddress").asText());
+        assertEquals(2, fourth.get("orderItems").size());
+        int jeansQuantity = 0;
+        for (JsonNode item : fourth.get("orderItems")) {
+            if (item.get("productName").asText().equals("Jeans, slim")) {
+                jeansQuantity = item.get("quantity").asInt();
+            }
+        }
+        assertEquals(4, jeansQuantity);
+        assertEquals("CANCELLED", objectMapper.readTree(lines.get(2)).get("orderStatus").asText());
+        for (String line : lines) {
+            assertFalse(objectMapper.readTree(line).get("orderItems").isEmpty());
+        }
+    }
+
+    @Test
+    void export_ShouldWriteOneQuotedCsvLinePerItem() throws Exception {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        orderReportService.export(from, LocalDateTime.now().plusMinutes(1), OrderReportService.Format.CSV, output);
+
+        // Then
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(OrderReportService.CSV_HEADER, lines.get(0));
+        assertEquals(1 + 5 + 2, lines.size());
+        assertTrue(lines.get(1).contains(",PENDING,59.99,\"1 Main St, Springfield\","));
+        assertTrue(lines.get(1).endsWith(",\"Jeans, slim\",1,59.99"));
+        assertEquals(2, lines.stream().filter(line -> line.endsWith(",Belt,1,15.00")).count());
+        assertEquals(0, orderReportService.export(from.minusDays(2), from.minusDays(1), OrderReportService.Format.CSV,
+            new ByteArrayOutputStream()));
+    }
+
+    private static OrderItem item(Order order, Product product, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setPrice(product.getPrice());
+        return item;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.request.OrderRequest;
+import com.ecommerce.dto.response.OrderBatchResponse;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    private Product phone;
+    private Product cable;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderService, "maxBatchOrders", 500);
+        phone = product(1L, "19.99", 5);
+        cable = product(2L, "5.00", 100);
+        User user = new User();
+        user.setId(7L);
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(user));
+        when(productRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(phone, cable));
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            long id = 100;
+            for (Order order : orders) {
+                order.setId(id++);
+            }
+            return orders;
+        });
+    }
+
+    @Test
+    void createOrders_ShouldCheckOrdersInSequenceAgainstOneProductLoad() {
+        // Given
+        when(productService.updateStock(anyMap())).thenReturn(Set.of());
+        List<OrderRequest> requests = Arrays.asList(
+            order(item(1L, 3), item(2L, 2), item(1L, 1)),
+            order(item(1L, 2)),
+            order(item(9L, 1)),
+            order(item(2L, 0)),
+            order(item(2L, 10))
+        );
+
+        // When
+        OrderBatchResponse response = orderService.createOrders(7L, requests);
+
+        // Then
+        assertEquals(List.of(OrderBatchResponse.Status.CREATED, OrderBatchResponse.Status.INSUFFICIENT_STOCK,
+                OrderBatchResponse.Status.PRODUCT_NOT_FOUND, OrderBatchResponse.Status.INVALID, OrderBatchResponse.Status.CREATED),
+            response.getResults().stream().map(OrderBatchResponse.Result::getStatus).toList());
+        assertEquals(2, response.getCreated());
+        assertEquals(new BigDecimal("89.96"), response.getResults().get(0).getTotalAmount());
+        assertEquals(101L, response.getResults().get(4).getOrderId());
+        verify(productRepository, times(1)).findAllById(anyIterable());
+        verify(productService).updateStock(Map.of(1L, 4, 2L, 12));
+        verify(productService, never()).restoreStock(anyMap());
+    }
+
+    @Test
+    void createOrders_WhenConcurrentSaleLeavesProductShort_ShouldRejectItsOrdersAndGiveBackTheRest() {
+        // Given
+        when(productService.updateStock(anyMap())).thenReturn(Set.of(1L));
+        List<OrderRequest> requests = Arrays.asList(
+            order(item(1L, 1), item(2L, 4)),
+            order(item(2L, 6))
+        );
+
+        // When
+        OrderBatchResponse response = orderService.createOrders(7L, requests);
+
+        // Then
+        assertEquals(OrderBatchResponse.Status.INSUFFICIENT_STOCK, response.getResults().get(0).getStatus());
+        assertNull(response.getResults().get(0).getOrderId());
+        assertEquals(OrderBatchResponse.Status.CREATED, response.getResults().get(1).getStatus());
+        verify(productService).restoreStock(Map.of(2L, 4));
+        verify(orderRepository).saveAll(argThat((List<Order> orders) -> orders.size() == 1));
+    }
+
+    private static OrderRequest order(OrderRequest.OrderItemRequest... items) {
+        OrderRequest request = new OrderRequest();
+        request.setOrderItems(Arrays.asList(items));
+        request.setShippingAddress("1 Test Street");
+        return request;
+    }
+
+    private static OrderRequest.OrderItemRequest item(Long productId, int quantity) {
+        return new OrderRequest.OrderItemRequest(productId, quantity);
+    }
+
+    private static Product product(Long id, String price, int stock) {
+        Product product = new Product("Product " + id, null, new BigDecimal(price), stock, "Electronics");
+        product.setId(id);
+        product.setIsActive(true);
+        return product;
+    }
+}
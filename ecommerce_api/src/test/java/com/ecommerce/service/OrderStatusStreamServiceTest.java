@@ -0,0 +1,116 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.response.OrderStatusEvent;
+import com.ecommerce.entity.OrderStatus;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatusStreamServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private final List<OrderStatusStreamService> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:order-status-events;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_status_events");
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(OrderStatusStreamService::shutdown);
+    }
+
+    @Test
+    void poll_ShouldFanOutTransitionsCommittedOnAnyNodeInGlobalSequence() {
+        // Given
+        OrderStatusStreamService first = node();
+        OrderStatusStreamService second = node();
+        first.onOrderStatusChanged(change(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+        second.onOrderStatusChanged(change(2L, OrderStatus.PENDING, OrderStatus.CANCELLED));
+        first.onOrderStatusChanged(change(1L, OrderStatus.CONFIRMED, OrderStatus.SHIPPED));
+
+        // When
+        assertEquals(List.of(), first.since(0));
+        first.poll();
+        second.poll();
+
+        // Then
+        List<OrderStatusEvent> seenByFirst = first.since(0);
+        List<OrderStatusEvent> seenBySecond = second.since(0);
+        assertEquals(List.of(1L, 2L, 3L), seenByFirst.stream().map(OrderStatusEvent::getSequence).toList());
+        assertEquals(List.of(1L, 2L, 1L), seenBySecond.stream().map(OrderStatusEvent::getOrderId).toList());
+        assertEquals(OrderStatus.CONFIRMED, seenBySecond.get(2).getPreviousStatus());
+        assertEquals(List.of(3L), first.since(2).stream().map(OrderStatusEvent::getSequence).toList());
+        assertTrue(second.since(3).isEmpty());
+    }
+
+    @Test
+    void poll_ShouldWaitForAnIdStillBeingCommittedUntilTheGapTimeout() {
+        // Given
+        OrderStatusStreamService node = node();
+        node.onOrderStatusChanged(change(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+        jdbcTemplate.update("INSERT INTO order_status_events (id, order_id, user_id, previous_status, order_status, changed_at) " +
+            "VALUES (3, 2, 7, 'PENDING', 'CONFIRMED', CURRENT_TIMESTAMP)");
+
+        // When
+        node.poll();
+        List<OrderStatusEvent> beforeTimeout = node.since(0);
+        ReflectionTestUtils.setField(node, "gapTimeout", Duration.ZERO);
+        node.poll();
+
+        // Then
+        assertEquals(List.of(1L), beforeTimeout.stream().map(OrderStatusEvent::getSequence).toList());
+        assertEquals(List.of(1L, 3L), node.since(0).stream().map(OrderStatusEvent::getSequence).toList());
+    }
+
+    @Test
+    void since_WhenMissedEventsAreTooManyPrunedOrUnknown_ShouldAskForReset() {
+        // Given
+        OrderStatusStreamService node = node();
+        for (long orderId = 1; orderId <= 5; orderId++) {
+            node.onOrderStatusChanged(change(orderId, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+        }
+        node.poll();
+
+        // When & Then
+        assertEquals(4, node.since(1).size());
+        assertNull(node.since(0));
+        assertNull(node.since(42));
+        jdbcTemplate.update("UPDATE order_status_events SET changed_at = ? WHERE id <= 2", LocalDateTime.now().minusDays(2));
+        node.prune();
+        assertNull(node.since(1));
+        assertEquals(3, node.since(2).size());
+    }
+
+    private OrderStatusStreamService node() {
+        OrderStatusStreamService node = new OrderStatusStreamService();
+        ReflectionTestUtils.setField(node, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(node, "streamTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(node, "bufferSize", 4);
+        ReflectionTestUtils.setField(node, "queueCapacity", 16);
+        ReflectionTestUtils.setField(node, "senderThreads", 1);
+        ReflectionTestUtils.setField(node, "gapTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(node, "retention", Duration.ofDays(1));
+        node.start();
+        nodes.add(node);
+        return node;
+    }
+
+    private static OrderStatusChangedEvent change(Long orderId, OrderStatus previousStatus, OrderStatus orderStatus) {
+        return new OrderStatusChangedEvent(orderId, 7L, previousStatus, orderStatus, LocalDateTime.now());
+    }
+}
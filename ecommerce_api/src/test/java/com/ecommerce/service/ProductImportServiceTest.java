@@ -0,0 +1,126 @@
+package com.ecommerce.service;
+
+import com.ecommerce.catalog.CatalogIndexer;
+import com.ecommerce.dto.response.ProductImportResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private CatalogIndexer catalogIndexer;
+
+    @InjectMocks
+    private ProductImportService productImportService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:product-import;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS products");
+        // Unique names give the tests a row the database rejects after validation has passed
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(100) NOT NULL UNIQUE, " +
+            "description VARCHAR(500), price DECIMAL(10, 2) NOT NULL, stock_quantity INT NOT NULL, category VARCHAR(50), " +
+            "brand VARCHAR(50), image_url VARCHAR(255), is_active BOOLEAN, created_at TIMESTAMP, updated_at TIMESTAMP)");
+        ReflectionTestUtils.setField(productImportService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(productImportService, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(productImportService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(productImportService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(productImportService, "batchSize", 2);
+        ReflectionTestUtils.setField(productImportService, "maxErrors", 10);
+    }
+
+    @Test
+    void importProducts_FromCsv_ShouldInsertValidRowsAndReportBadOnesByLine() throws Exception {
+        // Given
+        String csv = String.join("\n",
+            "name,price,stock_quantity,category,Description",
+            "\"Jeans, slim\",59.99,10,Clothing,\"The \"\"best\"\" fit\"",
+            "",
+            "Belt,abc,5,Clothing,",
+            ",15.00,5,Clothing,",
+            "Scarf,12.50,3,Clothing,",
+            "Hat,9.99,2",
+            "Socks,4.99,20,Clothing,");
+
+        // When
+        ProductImportResponse response = productImportService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        // Then
+        assertEquals(6, response.getReceived());
+        assertEquals(3, response.getImported());
+        assertEquals(3, response.getFailed());
+        assertFalse(response.isErrorsTruncated());
+        assertEquals(List.of(4L, 5L, 7L), response.getErrors().stream().map(ProductImportResponse.RowError::getRow).toList());
+        assertEquals("Invalid number for price: abc", response.getErrors().get(0).getMessage());
+        assertEquals("name must not be blank", response.getErrors().get(1).getMessage());
+        assertEquals("The \"best\" fit", jdbcTemplate.queryForObject(
+            "SELECT description FROM products WHERE name = 'Jeans, slim'", String.class));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class));
+        verify(catalogIndexer).refreshFromRepository();
+    }
+
+    @Test
+    void importProducts_FromNdjson_WhenChunkFails_ShouldReplayItRowByRowAndCapReportedErrors() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(productImportService, "maxErrors", 1);
+        String ndjson = String.join("\n",
+            "{\"name\":\"Lamp\",\"price\":20.00,\"stockQuantity\":4}",
+            "{\"name\":\"Desk\",\"price\":150.00,\"stockQuantity\":1}",
+            "{\"name\":\"Chair\",\"price\":80.00,\"stockQuantity\":6}",
+            "{\"name\":\"Lamp\",\"price\":25.00,\"stockQuantity\":2}",
+            "{\"name\":",
+            "{\"name\":\"Shelf\",\"price\":40.00,\"stockQuantity\":3}");
+
+        // When
+        ProductImportResponse response = productImportService.importProducts(stream(ndjson), ProductImportService.Format.NDJSON);
+
+        // Then
+        assertEquals(6, response.getReceived());
+        assertEquals(4, response.getImported());
+        assertEquals(2, response.getFailed());
+        assertEquals(1, response.getErrors().size());
+        assertEquals(4L, response.getErrors().get(0).getRow());
+        assertTrue(response.isErrorsTruncated());
+        assertEquals(List.of("Chair", "Desk", "Lamp", "Shelf"),
+            jdbcTemplate.queryForList("SELECT name FROM products ORDER BY name", String.class));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE name = 'Lamp'", Integer.class));
+    }
+
+    @Test
+    void importProducts_WhenNothingIsImported_ShouldNotRefreshTheCatalog() throws Exception {
+        // When
+        ProductImportResponse response = productImportService.importProducts(stream("{\"price\":1}"), ProductImportService.Format.NDJSON);
+
+        // Then
+        assertEquals(0, response.getImported());
+        assertEquals(1, response.getFailed());
+        verifyNoInteractions(catalogIndexer);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
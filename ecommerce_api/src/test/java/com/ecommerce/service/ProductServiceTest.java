@@ -1,23 +1,52 @@
 package com.ecommerce.service;
 
+import com.ecommerce.catalog.ProductCache;
+import com.ecommerce.catalog.ProductChangedEvent;
+import com.ecommerce.catalog.ProductPopularity;
+import com.ecommerce.catalog.ProductResponseCache;
+import com.ecommerce.catalog.ProductSearchIndex;
+import com.ecommerce.catalog.SearchRankings;
+import com.ecommerce.config.ReplicaLagMonitor;
+import com.ecommerce.config.ReplicaRoutingDataSource;
 import com.ecommerce.dto.request.ProductRequest;
+import com.ecommerce.dto.request.StockAdjustmentRequest.StockAdjustment;
+import com.ecommerce.dto.response.CursorPage;
+import com.ecommerce.dto.response.ProductBatchResponse;
+import com.ecommerce.dto.response.ProductResponse;
+import com.ecommerce.dto.response.StockAdjustmentResponse;
 import com.ecommerce.entity.Product;
+import com.ecommerce.exception.BadRequestException;
 import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.inventory.InventoryLedger;
 import com.ecommerce.repository.ProductRepository;
+import org.h2.jdbcx.JdbcDataSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,6 +59,30 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(5));
+
+    @Mock
+    private ProductResponseCache responseCache;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Spy
+    private SearchRankings searchRankings = new SearchRankings(1000, Duration.ofMinutes(5));
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ProductPopularity productPopularity;
+
+    @Mock
+    private InventoryLedger inventoryLedger;
+
     @InjectMocks
     private ProductService productService;
 
@@ -58,14 +111,14 @@ class ProductServiceTest {
     @Test
     void getAllProducts_ShouldReturnPageOfProducts() {
         // Given
-        List<Product> products = Arrays.asList(testProduct);
-        Page<Product> productPage = new PageImpl<>(products);
+        List<ProductResponse> products = Arrays.asList(ProductResponse.from(testProduct));
+        Page<ProductResponse> productPage = new PageImpl<>(products);
         Pageable pageable = PageRequest.of(0, 10);
 
         when(productRepository.findByIsActiveTrue(pageable)).thenReturn(productPage);
 
         // When
-        Page<Product> result = productService.getAllProducts(pageable);
+        Page<ProductResponse> result = productService.getAllProducts(pageable);
 
         // Then
         assertNotNull(result);
@@ -80,7 +133,7 @@ class ProductServiceTest {
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
 
         // When
-        Product result = productService.getProductById(1L);
+        ProductResponse result = productService.getProductById(1L);
 
         // Then
         assertNotNull(result);
@@ -99,6 +152,102 @@ class ProductServiceTest {
         verify(productRepository).findById(1L);
     }
 
+    @Test
+    void getProductById_WhenCached_ShouldNotHitRepositoryAgain() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        // When
+        productService.getProductById(1L);
+        ProductResponse result = productService.getProductById(1L);
+
+        // Then
+        assertEquals(testProduct.getName(), result.getName());
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getProductById_InReadOnlyTransaction_ShouldCacheThePrimaryRowNotTheLaggingReplica() {
+        // Given
+        DataSource primary = h2("product-primary");
+        DataSource replica = h2("product-replica");
+        for (DataSource dataSource : new DataSource[] {primary, replica}) {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("DROP TABLE IF EXISTS products");
+            jdbc.execute("DROP TABLE IF EXISTS replica_heartbeat");
+            jdbc.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, stock_quantity INT)");
+            jdbc.execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        }
+        // The replica is within max-lag but has not applied the stock update yet
+        new JdbcTemplate(primary).update("INSERT INTO products VALUES (1, 4)");
+        new JdbcTemplate(replica).update("INSERT INTO products VALUES (1, 10)");
+        new JdbcTemplate(replica).update("INSERT INTO replica_heartbeat VALUES (1, ?)", System.currentTimeMillis());
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(primary, replica, Duration.ofSeconds(3));
+        lagMonitor.check();
+        DataSource routed = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, lagMonitor));
+        JdbcTemplate routedJdbc = new JdbcTemplate(routed);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routed);
+        ReflectionTestUtils.setField(productService, "transactionManager", transactionManager);
+        when(productRepository.findById(1L)).thenAnswer(invocation -> {
+            testProduct.setStockQuantity(routedJdbc.queryForObject("SELECT stock_quantity FROM products WHERE id = 1", Integer.class));
+            return Optional.of(testProduct);
+        });
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // When
+        ProductResponse result = readOnly.execute(status -> productService.getProductById(1L));
+
+        // Then
+        assertTrue(lagMonitor.isReplicaUsable());
+        assertEquals(4, result.getStockQuantity());
+        assertEquals(4, readOnly.execute(status -> productService.getProductById(1L)).getStockQuantity());
+        Integer replicaStock = readOnly.execute(status -> routedJdbc.queryForObject("SELECT stock_quantity FROM products", Integer.class));
+        assertEquals(10, replicaStock);
+    }
+
+    @Test
+    void getProductsByIds_ShouldKeepRequestOrderAndLoadOnlyCacheMissesInOneQuery() {
+        // Given
+        ReflectionTestUtils.setField(productService, "maxBatchIds", 100);
+        Product other = new Product("Other Product", null, new BigDecimal("5.00"), 3, "Books");
+        other.setId(2L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findAllById(any())).thenReturn(List.of(other));
+        productService.getProductById(1L);
+
+        // When
+        ProductBatchResponse result = productService.getProductsByIds(List.of(2L, 9L, 1L, 2L));
+
+        // Then
+        assertEquals(List.of(2L, 9L, 1L, 2L), result.getItems().stream().map(ProductBatchResponse.Item::getId).toList());
+        assertEquals(ProductBatchResponse.Status.NOT_FOUND, result.getItems().get(1).getStatus());
+        assertNull(result.getItems().get(1).getProduct());
+        assertEquals("Test Product", result.getItems().get(2).getProduct().getName());
+        assertEquals(3, result.getFound());
+        assertEquals(1, result.getMissing());
+        verify(productRepository, times(1)).findAllById(argThat(ids -> ids instanceof List<?> list
+            && list.size() == 2 && list.containsAll(List.of(2L, 9L))));
+    }
+
+    @Test
+    void updateProduct_ShouldInvalidateCachedProduct() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        productService.getProductById(1L);
+        testProductRequest.setName("Renamed Product");
+
+        // When
+        productService.updateProduct(1L, testProductRequest);
+        ProductResponse result = productService.getProductById(1L);
+
+        // Then
+        assertEquals("Renamed Product", result.getName());
+        verify(productCache).invalidate(1L);
+        verify(responseCache).evict(1L);
+    }
+
     @Test
     void createProduct_ShouldReturnSavedProduct() {
         // Given
@@ -148,27 +297,105 @@ class ProductServiceTest {
     void updateStock_WhenSufficientStock_ShouldUpdateQuantity() {
         // Given
         testProduct.setStockQuantity(10);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(jdbcTemplate.update(anyString(), eq(5), any(), eq(1L), eq(5))).thenReturn(1);
 
         // When
-        productService.updateStock(1L, 5);
+        productService.updateStock(testProduct, 5);
 
         // Then
-        assertEquals(5, testProduct.getStockQuantity());
-        verify(productRepository).findById(1L);
-        verify(productRepository).save(testProduct);
+        verify(eventPublisher).publishEvent(argThat((ProductChangedEvent event) -> event.getProductId() == 1L && event.getProduct() == null));
+        verify(productRepository, never()).findById(anyLong());
+        verify(productRepository, never()).save(any(Product.class));
+        verify(productPopularity).record(1L, 5);
+    }
+
+    @Test
+    void restoreStock_ForBatch_ShouldAskListenersToReloadTheCommittedRow() {
+        // Given
+        testProduct.setStockQuantity(10);
+
+        // When
+        productService.restoreStock(Map.of(1L, 4));
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+        verify(eventPublisher).publishEvent(argThat((ProductChangedEvent event) -> event.getProductId() == 1L && event.getProduct() == null));
+        verify(productCache).invalidate(1L);
+        verify(productPopularity).record(1L, -4);
     }
 
     @Test
     void updateStock_WhenInsufficientStock_ShouldThrowException() {
         // Given
         testProduct.setStockQuantity(5);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(jdbcTemplate.update(anyString(), eq(10), any(), eq(1L), eq(10))).thenReturn(0);
 
         // When & Then
-        assertThrows(IllegalArgumentException.class, () -> productService.updateStock(1L, 10));
-        verify(productRepository).findById(1L);
-        verify(productRepository, never()).save(any(Product.class));
+        assertThrows(IllegalArgumentException.class, () -> productService.updateStock(testProduct, 10));
+        assertEquals(5, testProduct.getStockQuantity());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        verify(productPopularity, never()).record(anyLong(), anyInt());
+    }
+
+    @Test
+    void adjustStock_ShouldReportPerItemResultsAndInvalidateOnlyUpdatedProducts() {
+        // Given
+        List<StockAdjustment> adjustments = Arrays.asList(
+            new StockAdjustment(1L, -3, null),
+            new StockAdjustment(1L, -50, null),
+            new StockAdjustment(99L, null, 5),
+            new StockAdjustment(1L, 2, 4));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), eq(3), any(ParameterizedPreparedStatementSetter.class)))
+            .thenReturn(new int[][] {{1, 0, 0}});
+        testProduct.setStockQuantity(7);
+        when(productRepository.findAllById(any())).thenReturn(List.of(testProduct));
+
+        // When
+        StockAdjustmentResponse response = productService.adjustStock(adjustments);
+
+        // Then
+        assertEquals(List.of(StockAdjustmentResponse.Status.UPDATED, StockAdjustmentResponse.Status.INSUFFICIENT_STOCK,
+                StockAdjustmentResponse.Status.NOT_FOUND, StockAdjustmentResponse.Status.INVALID),
+            response.getResults().stream().map(StockAdjustmentResponse.Result::getStatus).toList());
+        assertEquals(7, response.getResults().get(0).getStockQuantity());
+        assertEquals(1, response.getUpdated());
+        verify(productCache, times(1)).invalidate(1L);
+        verify(productCache, never()).invalidate(99L);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    @Test
+    void searchProductsAfter_ShouldPageThroughTheFirstPagesRankingEvenWhenTheIndexReRanks() {
+        // Given
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.matchingIds("pro")).thenReturn(List.of(3L, 1L, 2L, 4L), List.of(2L, 4L, 3L, 1L));
+        when(productRepository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Product> products = new ArrayList<>();
+            for (Long id : ids) {
+                Product product = new Product("Pro " + id, null, BigDecimal.ONE, 1, "Electronics");
+                product.setId(id);
+                products.add(product);
+            }
+            return products;
+        });
+
+        // When
+        CursorPage<ProductResponse> first = productService.searchProductsAfter("pro", "", 2);
+        CursorPage<ProductResponse> second = productService.searchProductsAfter("pro", first.getNextCursor(), 2);
+
+        // Then
+        assertEquals(List.of(3L, 1L), first.getContent().stream().map(ProductResponse::getId).toList());
+        assertEquals(List.of(2L, 4L), second.getContent().stream().map(ProductResponse::getId).toList());
+        assertNull(second.getNextCursor());
+        verify(productSearchIndex, times(1)).matchingIds("pro");
+        String cursor = first.getNextCursor();
+        assertThrows(BadRequestException.class, () -> productService.searchProductsAfter("laptop", cursor, 2));
     }
 }
@@ -0,0 +1,102 @@
+package com.ecommerce.service;
+
+import com.ecommerce.catalog.ProductCache;
+import com.ecommerce.catalog.ProductPopularity;
+import com.ecommerce.catalog.ProductResponseCache;
+import com.ecommerce.entity.Product;
+import com.ecommerce.inventory.InventoryLedger;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ProductStockConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 50;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ProductPopularity productPopularity;
+    private ProductService productService;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:stock;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS products");
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, stock_quantity INT, updated_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO products VALUES (1, ?, NULL)", INITIAL_STOCK);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        productPopularity = new ProductPopularity();
+        productService = new ProductService();
+        ReflectionTestUtils.setField(productService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(productService, "productCache", new ProductCache(100, Duration.ofMinutes(5)));
+        ReflectionTestUtils.setField(productService, "responseCache", mock(ProductResponseCache.class));
+        ReflectionTestUtils.setField(productService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(productService, "productPopularity", productPopularity);
+        ReflectionTestUtils.setField(productService, "inventoryLedger", new InventoryLedger());
+
+        // Every checkout works from the same stale copy, as concurrent requests would
+        product = new Product("Contended Product", null, new BigDecimal("10.00"), INITIAL_STOCK, "Electronics");
+        product.setId(1L);
+        product.setIsActive(true);
+    }
+
+    @Test
+    void updateStock_UnderConcurrentCheckouts_ShouldNeverOversell() throws Exception {
+        // Given
+        int threads = 16;
+        int attempts = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(attempts);
+        for (int i = 0; i < attempts; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> productService.updateStock(product, 1));
+                    sold.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        // When
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(INITIAL_STOCK, sold.get());
+        assertEquals(attempts - INITIAL_STOCK, rejected.get());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = 1", Integer.class));
+        assertEquals(INITIAL_STOCK, productPopularity.get(1L));
+    }
+}
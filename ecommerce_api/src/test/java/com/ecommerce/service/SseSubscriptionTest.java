@@ -0,0 +1,96 @@
+package com.ecommerce.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseSubscriptionTest {
+
+    private final ExecutorService sender = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        sender.shutdownNow();
+    }
+
+    @Test
+    void offer_ShouldKeepDeliveringToOthersWhileOneClientIsStuckAndDropItOnceItsQueueFills() throws Exception {
+        // Given
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter stuck = new RecordingEmitter(unblock);
+        RecordingEmitter fast = new RecordingEmitter(new CountDownLatch(0));
+        AtomicInteger closed = new AtomicInteger();
+        SseSubscription stuckSubscription = new SseSubscription(stuck, sender, 2, closed::incrementAndGet);
+        SseSubscription fastSubscription = new SseSubscription(fast, sender, 2, closed::incrementAndGet);
+
+        // When
+        assertTrue(stuckSubscription.offer(SseEmitter.event().data(1)));
+        awaitSending(stuck);
+        assertTrue(stuckSubscription.offer(SseEmitter.event().data(2)));
+        assertTrue(stuckSubscription.offer(SseEmitter.event().data(3)));
+        boolean overflowAccepted = stuckSubscription.offer(SseEmitter.event().data(4));
+        assertTrue(fastSubscription.offer(SseEmitter.event().data(1)));
+        assertTrue(fastSubscription.offer(SseEmitter.event().data(2)));
+        for (int attempt = 0; attempt < 100 && fast.sent.size() < 2; attempt++) {
+            Thread.sleep(20);
+        }
+        List<SseEmitter.SseEventBuilder> sentWhileStuck = List.copyOf(fast.sent);
+        unblock.countDown();
+        for (int attempt = 0; attempt < 100 && !stuck.completed; attempt++) {
+            Thread.sleep(20);
+        }
+
+        // Then
+        assertFalse(overflowAccepted);
+        assertEquals(2, sentWhileStuck.size());
+        assertTrue(stuck.completed);
+        assertEquals(1, stuck.sent.size());
+        assertFalse(fast.completed);
+        assertEquals(1, closed.get());
+        assertFalse(stuckSubscription.offer(SseEmitter.event().data(5)));
+    }
+
+    private static void awaitSending(RecordingEmitter emitter) throws InterruptedException {
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+    }
+
+    // Stands in for a client connection; send blocks until the latch opens, like a full socket buffer
+    private static class RecordingEmitter extends SseEmitter {
+
+        final List<SseEventBuilder> sent = new CopyOnWriteArrayList<>();
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch unblock;
+        volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            sent.add(builder);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+}